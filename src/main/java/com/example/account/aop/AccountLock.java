@@ -6,5 +6,13 @@ import java.lang.annotation.*;
 @Retention(RetentionPolicy.RUNTIME)
 @Inherited
 public @interface AccountLock {
-    long tryLockTime() default 5000L;
+    // 기본값 - 어노테이션을 붙일 수 없는 비동기 경로(AsyncTransactionService)도 같은 값을 쓴다
+    long DEFAULT_TRY_LOCK_TIME = 5000L;
+    long DEFAULT_LEASE_TIME = 15000L;
+
+    // 락을 기다리는 최대 시간(ms) - 같은 계좌 대기자가 많으면 LockService 가 더 줄인다
+    long tryLockTime() default DEFAULT_TRY_LOCK_TIME;
+
+    // 락을 잡고 있을 수 있는 최대 시간(ms) - 그 전까지는 작업이 끝날 때까지 watchdog 이 lease 를 연장한다
+    long leaseTime() default DEFAULT_LEASE_TIME;
 }
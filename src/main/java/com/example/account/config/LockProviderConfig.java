@@ -0,0 +1,35 @@
+package com.example.account.config;
+
+import com.example.account.service.DatabaseLockProvider;
+import com.example.account.service.LocalLockProvider;
+import com.example.account.service.LocalLockRegistry;
+import com.example.account.service.LockProvider;
+import com.example.account.service.LockService;
+import com.example.account.service.RedisLockProvider;
+import com.example.account.type.LockProviderType;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+public class LockProviderConfig {
+
+    // 계좌 락 구현 선택 (account.lock.provider: REDIS | LOCAL | DATABASE)
+    @Bean
+    public LockProvider lockProvider(@Value("${account.lock.provider:REDIS}") LockProviderType type,
+                                     ObjectProvider<LockService> lockService,
+                                     LocalLockRegistry localLockRegistry,
+                                     EntityManagerFactory entityManagerFactory,
+                                     PlatformTransactionManager transactionManager) {
+        return switch (type) {
+            case REDIS -> new RedisLockProvider(lockService.getObject());
+            case LOCAL -> new LocalLockProvider(localLockRegistry);
+            case DATABASE -> new DatabaseLockProvider(
+                SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory), transactionManager);
+        };
+    }
+}
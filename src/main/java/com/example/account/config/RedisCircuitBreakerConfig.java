@@ -0,0 +1,40 @@
+package com.example.account.config;
+
+import com.example.account.service.RedisCircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Redis circuit 을 용도마다 따로 둔다 - 한 용도의 실패(예: 큰 캐시 값 타임아웃)가 락까지 막지 않게 한다
+ * 기준 값(account.redis.circuit.*)은 같이 쓴다
+ */
+@Configuration
+public class RedisCircuitBreakerConfig {
+    @Value("${account.redis.circuit.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${account.redis.circuit.open-duration:PT10S}")
+    private Duration openDuration;
+
+    // 계좌 락 (LockService)
+    @Bean
+    public RedisCircuitBreaker lockCircuitBreaker(MeterRegistry meterRegistry) {
+        return new RedisCircuitBreaker("lock", meterRegistry, failureThreshold, openDuration);
+    }
+
+    // Idempotency-Key 응답 저장소
+    @Bean
+    public RedisCircuitBreaker idempotencyCircuitBreaker(MeterRegistry meterRegistry) {
+        return new RedisCircuitBreaker("idempotency", meterRegistry, failureThreshold, openDuration);
+    }
+
+    // 거래 캐시, 계좌/계좌 목록 캐시의 무효화 메시지
+    @Bean
+    public RedisCircuitBreaker cacheCircuitBreaker(MeterRegistry meterRegistry) {
+        return new RedisCircuitBreaker("cache", meterRegistry, failureThreshold, openDuration);
+    }
+}
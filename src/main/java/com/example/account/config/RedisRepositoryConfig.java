@@ -7,6 +7,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 public class RedisRepositoryConfig {
     @Value("${spring.data.redis.host}")
@@ -15,10 +17,30 @@ public class RedisRepositoryConfig {
     @Value("${spring.data.redis.port}")
     private int redisPort;
 
+    // 락 요청이 Redis 타임아웃 뒤에 쌓이지 않도록 짧게 끊고 재시도도 줄인다 (이후는 circuit breaker 가 처리)
+    @Value("${spring.data.redis.timeout:PT1S}")
+    private Duration timeout;
+
+    @Value("${spring.data.redis.connect-timeout:PT1S}")
+    private Duration connectTimeout;
+
+    @Value("${account.lock.redis.retry-attempts:1}")
+    private int retryAttempts;
+
+    // lease 없이 잡은 락은 이 시간의 1/3 마다 소유자가 살아 있는 동안 연장된다
+    @Value("${account.lock.watchdog.timeout-ms:10000}")
+    private long lockWatchdogTimeout;
+
     @Bean
     public RedissonClient redissonClient() {
         Config config = new Config();
-        config.useSingleServer().setAddress("redis://" + redisHost + ":" + redisPort);
+        config.setLockWatchdogTimeout(lockWatchdogTimeout);
+        config.useSingleServer()
+            .setAddress("redis://" + redisHost + ":" + redisPort)
+            .setTimeout((int) timeout.toMillis())
+            .setConnectTimeout((int) connectTimeout.toMillis())
+            .setRetryAttempts(retryAttempts)
+            .setRetryInterval(200);
 
         return Redisson.create(config);
     }
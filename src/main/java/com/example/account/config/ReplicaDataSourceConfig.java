@@ -0,0 +1,55 @@
+package com.example.account.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * account.datasource.replica.url 이 있으면
+ * readOnly 트랜잭션은 replica 풀로, 나머지는 primary 풀로 보낸다
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "account.datasource.replica", name = "url")
+public class ReplicaDataSourceConfig {
+
+    // 자동 설정을 대신하므로 spring.datasource.hikari.* (풀 크기, 타임아웃 등)도 직접 바인딩한다
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+    }
+
+    @Bean
+    public DataSource replicaDataSource(
+        @Value("${account.datasource.replica.url}") String url,
+        @Value("${account.datasource.replica.username:${spring.datasource.username:}}") String username,
+        @Value("${account.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        return DataSourceBuilder.create()
+            .url(url)
+            .username(username)
+            .password(password)
+            .build();
+    }
+
+    // 실제 커넥션은 첫 쿼리 때 가져오므로, 그 시점의 readOnly 여부로 풀을 고른다
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy routingDataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        routingDataSource.setReadOnlyDataSource(replicaDataSource);
+        return routingDataSource;
+    }
+}
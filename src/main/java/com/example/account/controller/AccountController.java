@@ -4,13 +4,14 @@ package com.example.account.controller;
 import com.example.account.dto.AccountInfo;
 import com.example.account.dto.CloseAccount;
 import com.example.account.dto.CreateAccount;
+import com.example.account.dto.UserAccounts;
 import com.example.account.service.AccountService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 
 @RestController
@@ -31,13 +32,16 @@ public class AccountController {
         );
     }
 
-    // 계좌 조회
+    // 계좌 조회 - 목록이 그대로면(If-None-Match 일치) 본문 없이 304
     @GetMapping("/account")
     public List<AccountInfo> getAccountByUserId(
-        @RequestParam("user_id") Long userId) {
-        return accountService.getAccountByUserId(userId).stream()
-            .map(AccountInfo::from)
-            .collect(Collectors.toList());
+        @RequestParam("user_id") Long userId,
+        WebRequest webRequest) {
+        UserAccounts userAccounts = accountService.getAccountInfos(userId);
+        if (webRequest.checkNotModified(userAccounts.etag())) {
+            return null;
+        }
+        return userAccounts.accounts();
     }
 
     @DeleteMapping("/account")
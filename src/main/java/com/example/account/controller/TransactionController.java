@@ -1,15 +1,34 @@
 package com.example.account.controller;
 
 import com.example.account.aop.AccountLock;
+import com.example.account.aop.Idempotent;
 import com.example.account.dto.CancelBalance;
 import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.TransactionHistoryResponse;
 import com.example.account.dto.UseBalance;
+import com.example.account.dto.UseBalanceBatch;
 import com.example.account.exception.AccountException;
+import com.example.account.service.AsyncTransactionService;
+import com.example.account.service.FailedTransactionRecorder;
+import com.example.account.service.TransactionBatchService;
+import com.example.account.service.TransactionExportService;
 import com.example.account.service.TransactionService;
+import com.example.account.type.ExportFormat;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 
 @Slf4j
@@ -18,9 +37,17 @@ import org.springframework.web.bind.annotation.*;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
+    private final FailedTransactionRecorder failedTransactionRecorder;
+    private final TransactionBatchService transactionBatchService;
+    private final AsyncTransactionService asyncTransactionService;
+
+    @Value("${account.transaction.export.timeout:PT10M}")
+    private Duration exportTimeout = Duration.ofMinutes(10);
 
     // 잔액 사용
     @PostMapping("/transaction/use")
+    @Idempotent
     @AccountLock
     public UseBalance.Response useBalance(
         @RequestBody @Valid UseBalance.Request requestDto
@@ -37,16 +64,52 @@ public class TransactionController {
 
             log.error("Failed to use balance");
 
-            transactionService.saveFailedUseTransaction(
+            // 대기열에 넣기만 하고 바로 돌아가 계좌 락을 붙잡지 않는다
+            failedTransactionRecorder.record(
                 requestDto.getAccountNumber(),
-                requestDto.getAmount()
+                requestDto.getAmount(),
+                TransactionType.USE,
+                e.getBalanceSnapshot()
             );
 
             throw e;
         }
     }
 
+    // 잔액 사용 (비동기) - 계좌 락을 기다리는 동안 요청 스레드를 붙잡지 않는다
+    @PostMapping("/transaction/use/async")
+    @Idempotent
+    public CompletableFuture<UseBalance.Response> useBalanceAsync(
+        @RequestBody @Valid UseBalance.Request requestDto) {
+        return asyncTransactionService.useBalance(
+                requestDto.getUserId(),
+                requestDto.getAccountNumber(),
+                requestDto.getAmount())
+            .whenComplete((transactionDto, e) -> {
+                if (unwrap(e) instanceof AccountException accountException) {
+                    log.error("Failed to use balance");
+                    failedTransactionRecorder.record(
+                        requestDto.getAccountNumber(),
+                        requestDto.getAmount(),
+                        TransactionType.USE,
+                        accountException.getBalanceSnapshot()
+                    );
+                }
+            })
+            .thenApply(UseBalance.Response::from);
+    }
+
+    // 잔액 사용 일괄 처리 (계좌별 락은 서비스에서 계좌마다 한 번씩 잡는다)
+    @PostMapping("/transaction/use/batch")
+    public UseBalanceBatch.Response useBalanceBatch(
+        @RequestBody @Valid UseBalanceBatch.Request requestDto) {
+        return new UseBalanceBatch.Response(
+            transactionBatchService.useBalances(requestDto.getRequests())
+        );
+    }
+
     @PostMapping("/transaction/cancel")
+    @Idempotent
     @AccountLock
     public CancelBalance.Response cancelBalance(
         @RequestBody @Valid CancelBalance.Request requestDto) {
@@ -59,15 +122,75 @@ public class TransactionController {
             );
         } catch (ArithmeticException e) {
             log.error("Failed to cancel balance");
-            transactionService.saveFailedCancelTransaction(
+            failedTransactionRecorder.record(
                 requestDto.getAccountNumber(),
-                requestDto.getAmount()
+                requestDto.getAmount(),
+                TransactionType.CANCEL
             );
 
             throw e;
         }
     }
 
+    @PostMapping("/transaction/cancel/async")
+    @Idempotent
+    public CompletableFuture<CancelBalance.Response> cancelBalanceAsync(
+        @RequestBody @Valid CancelBalance.Request requestDto) {
+        return asyncTransactionService.cancelBalance(
+                requestDto.getTransactionId(),
+                requestDto.getAccountNumber(),
+                requestDto.getAmount())
+            .whenComplete((transactionDto, e) -> {
+                // 서비스가 던지는 거래 실패(AccountException)만 실패 거래로 남긴다
+                if (unwrap(e) instanceof AccountException accountException) {
+                    log.error("Failed to cancel balance : {}", accountException.getErrorCode());
+                    failedTransactionRecorder.record(
+                        requestDto.getAccountNumber(),
+                        requestDto.getAmount(),
+                        TransactionType.CANCEL,
+                        accountException.getBalanceSnapshot()
+                    );
+                }
+            })
+            .thenApply(CancelBalance.Response::from);
+    }
+
+    // 계좌 거래 내역 조회 (cursor 기반 페이지)
+    @GetMapping("/account/{accountNumber}/transactions")
+    public TransactionHistoryResponse getTransactionHistory(
+        @PathVariable String accountNumber,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int size,
+        @RequestParam(required = false) TransactionType transactionType,
+        @RequestParam(required = false) TransactionResultType transactionResultType) {
+        return TransactionHistoryResponse.from(
+            transactionService.getTransactionHistory(
+                accountNumber, cursor, size, transactionType, transactionResultType)
+        );
+    }
+
+    // 계좌 거래 원장 내보내기 (NDJSON / CSV 스트리밍)
+    // 큰 계좌도 끊기지 않도록 이 응답만 전역 async 타임아웃 대신 export-timeout 을 쓴다
+    @GetMapping("/account/{accountNumber}/transactions/export")
+    public WebAsyncTask<Void> exportTransactions(
+        @PathVariable String accountNumber,
+        @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+        HttpServletResponse response) {
+        transactionExportService.validateAccount(accountNumber);
+
+        MediaType mediaType = format == ExportFormat.CSV
+            ? MediaType.parseMediaType("text/csv")
+            : MediaType.parseMediaType("application/x-ndjson");
+        String fileName = accountNumber + "-transactions." + format.name().toLowerCase();
+
+        response.setContentType(mediaType.toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            transactionExportService.export(accountNumber, format, response.getOutputStream());
+            return null;
+        });
+    }
+
     @GetMapping("/transaction/{transactionId}")
     public QueryTransactionResponse queryTransaction(
         @PathVariable String transactionId) {
@@ -75,4 +198,8 @@ public class TransactionController {
             transactionService.queryTransaction(transactionId)
         );
     }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
 }
@@ -21,7 +21,8 @@ import java.time.LocalDateTime;
 public class Account extends BaseTime {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq")
+    @SequenceGenerator(name = "account_seq", sequenceName = "account_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -35,6 +36,11 @@ public class Account extends BaseTime {
     private AccountStatus accountStatus;
 
     private Long balance;
+
+    // 락 없이(OPTIMISTIC 모드) 잔액을 바꿀 때 동시 수정 감지용
+    @Version
+    private Long version;
+
     private LocalDateTime registeredAt;
     private LocalDateTime unregisteredAt;
 
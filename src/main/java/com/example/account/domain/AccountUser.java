@@ -1,22 +1,33 @@
 package com.example.account.domain;
 
+import com.example.account.exception.AccountException;
+import com.example.account.exception.ErrorCode;
 import jakarta.persistence.*;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 
 @Getter
 @NoArgsConstructor
 @Entity
+// 사용자는 거의 바뀌지 않으므로 2차 캐시에 둔다 (Account 는 잔액이 계속 바뀌어 제외)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class AccountUser extends BaseTime {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_user_seq")
+    @SequenceGenerator(name = "account_user_seq", sequenceName = "account_user_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true, length = 50)
     private String userName;
 
+    // 사용 중인 계좌 수 - COUNT 쿼리 대신 생성/해지 때 행 잠금 상태에서 함께 바꾼다
+    @Column(nullable = false)
+    private int accountCount;
+
     public AccountUser(String userName) {
         this.userName = userName;
     }
@@ -26,4 +37,17 @@ public class AccountUser extends BaseTime {
         this.id = id;
         this.userName = userName;
     }
+
+    public void increaseAccountCount(int maxAccountCount) {
+        if (accountCount >= maxAccountCount) {
+            throw new AccountException(ErrorCode.USER_ACCOUNT_PER_USER_10);
+        }
+        accountCount++;
+    }
+
+    public void decreaseAccountCount() {
+        if (accountCount > 0) {
+            accountCount--;
+        }
+    }
 }
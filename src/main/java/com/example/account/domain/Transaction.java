@@ -13,9 +13,15 @@ import java.time.LocalDateTime;
 @Getter
 @Entity
 @NoArgsConstructor
+@Table(indexes = {
+    @Index(name = "uk_transaction_transaction_id", columnList = "transaction_id", unique = true),
+    @Index(name = "idx_transaction_account_history", columnList = "account_id, transaction_at, id")
+})
 public class Transaction extends BaseTime {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // IDENTITY 는 INSERT 마다 키를 받아야 해서 JDBC 배치가 꺼진다 - 시퀀스를 50개씩 미리 받아 쓴다
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_seq", allocationSize = 50)
     private Long id;
 
     private Long amount;
@@ -27,7 +33,12 @@ public class Transaction extends BaseTime {
     private TransactionResultType transactionResultType;
 
     private Long balanceSnapshot;
+
+    // 외부에는 문자열, DB 에는 16byte 로 저장
+    @Convert(converter = TransactionIdConverter.class)
+    @Column(nullable = false, length = 16)
     private String transactionId;
+
     private LocalDateTime transactionAt;
 
     @ManyToOne
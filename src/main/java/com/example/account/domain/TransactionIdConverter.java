@@ -0,0 +1,61 @@
+package com.example.account.domain;
+
+import com.example.account.domain.util.CrockfordBase32;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.nio.ByteBuffer;
+import java.util.HexFormat;
+
+/**
+ * 거래 ID 문자열을 16byte 고정 길이로 저장한다
+ * - snowflake (13자리 base32) : 앞 8byte 0 + 64bit ID
+ * - uuid (32자리 hex)         : 128bit 그대로
+ */
+@Converter
+public class TransactionIdConverter implements AttributeConverter<String, byte[]> {
+    private static final int UUID_HEX_LENGTH = 32;
+    private static final HexFormat HEX = HexFormat.of();
+
+    public static boolean isValid(String transactionId) {
+        try {
+            toBytes(transactionId);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public byte[] convertToDatabaseColumn(String transactionId) {
+        return transactionId == null ? null : toBytes(transactionId);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long high = buffer.getLong();
+        long low = buffer.getLong();
+        // uuid v4 는 version 비트 때문에 앞 8byte 가 0일 수 없다
+        if (high == 0) {
+            return CrockfordBase32.encode(low);
+        }
+        return HEX.formatHex(bytes);
+    }
+
+    private static byte[] toBytes(String transactionId) {
+        if (transactionId != null && transactionId.length() == CrockfordBase32.ENCODED_LENGTH) {
+            return ByteBuffer.allocate(16)
+                .putLong(0L)
+                .putLong(CrockfordBase32.decode(transactionId))
+                .array();
+        }
+        if (transactionId != null && transactionId.length() == UUID_HEX_LENGTH) {
+            return HEX.parseHex(transactionId.toLowerCase());
+        }
+        throw new IllegalArgumentException("invalid transaction id : " + transactionId);
+    }
+}
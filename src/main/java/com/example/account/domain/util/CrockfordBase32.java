@@ -0,0 +1,49 @@
+package com.example.account.domain.util;
+
+/**
+ * 64bit 값 <-> 13자리 Crockford base32 (소문자)
+ * 고정 길이라 문자열 정렬 순서와 숫자 순서가 같다
+ */
+public final class CrockfordBase32 {
+    public static final int ENCODED_LENGTH = 13;
+
+    private static final char[] ALPHABET = "0123456789abcdefghjkmnpqrstvwxyz".toCharArray();
+
+    private CrockfordBase32() {
+    }
+
+    public static String encode(long value) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    // 대소문자를 구분하지 않는다
+    public static long decode(String encoded) {
+        if (encoded == null || encoded.length() != ENCODED_LENGTH) {
+            throw new IllegalArgumentException("invalid base32 value : " + encoded);
+        }
+        long value = 0;
+        for (int i = 0; i < ENCODED_LENGTH; i++) {
+            int digit = indexOf(Character.toLowerCase(encoded.charAt(i)));
+            // 13자리 * 5bit = 65bit 이므로 첫 자리는 4bit 까지만 쓴다
+            if (digit < 0 || (i == 0 && digit > 15)) {
+                throw new IllegalArgumentException("invalid base32 value : " + encoded);
+            }
+            value = (value << 5) | digit;
+        }
+        return value;
+    }
+
+    private static int indexOf(char c) {
+        for (int i = 0; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.account.dto;
+
+import com.example.account.type.AccountStatus;
+
+/**
+ * 계좌번호로 찾은 소유자/상태 정보 (거래 검증용 캐시 값)
+ */
+public record AccountOwnership(Long accountId,
+                               Long ownerUserId,
+                               AccountStatus accountStatus) {
+}
@@ -0,0 +1,44 @@
+package com.example.account.dto;
+
+import com.example.account.domain.Transaction;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+
+import java.time.LocalDateTime;
+
+/**
+ * 저장 후 바뀌지 않는 거래 정보만 담은 캐시용 값
+ * 조회 응답과 취소 검증에 필요한 값만 가진다
+ */
+public record CachedTransaction(String transactionId,
+                                Long accountId,
+                                String accountNumber,
+                                Long amount,
+                                Long balanceSnapshot,
+                                LocalDateTime transactedAt,
+                                TransactionResultType transactionResultType,
+                                TransactionType transactionType) {
+
+    public static CachedTransaction from(Transaction transaction) {
+        return of(transaction, transaction.getAccount().getAccountNumber());
+    }
+
+    // 계좌가 지연 로딩 프록시여도 초기화하지 않도록 계좌번호를 따로 받는다
+    public static CachedTransaction of(Transaction transaction, String accountNumber) {
+        return new CachedTransaction(
+            transaction.getTransactionId(),
+            transaction.getAccount().getId(),
+            accountNumber,
+            transaction.getAmount(),
+            transaction.getBalanceSnapshot(),
+            transaction.getTransactionAt(),
+            transaction.getTransactionResultType(),
+            transaction.getTransactionType());
+    }
+
+    // 응답마다 불리므로 builder 를 거치지 않고 생성자로 바로 옮긴다
+    public TransactionDto toDto() {
+        return new TransactionDto(accountNumber, transactionId, amount, balanceSnapshot,
+            transactedAt, transactionResultType, transactionType);
+    }
+}
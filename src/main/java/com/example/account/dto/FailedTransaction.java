@@ -0,0 +1,18 @@
+package com.example.account.dto;
+
+import com.example.account.type.TransactionType;
+
+import java.time.LocalDateTime;
+
+/**
+ * 저장 대기 중인 실패 거래 (대기열/임시 파일에 쌓이는 값)
+ * 거래 ID 는 기록할 때 정해 다시 저장해도 중복되지 않게 한다 (이전 파일처럼 없으면 저장할 때 발급)
+ * 잔액은 호출한 쪽이 실패한 시점에 가진 값 (없으면 저장 시점의 잔액을 쓴다)
+ */
+public record FailedTransaction(String transactionId,
+                                String accountNumber,
+                                Long amount,
+                                TransactionType transactionType,
+                                Long balanceSnapshot,
+                                LocalDateTime failedAt) {
+}
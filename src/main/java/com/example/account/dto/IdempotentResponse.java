@@ -0,0 +1,16 @@
+package com.example.account.dto;
+
+/**
+ * Idempotency-Key 로 저장한 응답 - body 가 null 이면 아직 처리 중(PENDING)
+ * fingerprint 는 요청 본문의 해시로, 같은 키를 다른 요청에 쓰는 것을 막는다
+ */
+public record IdempotentResponse(String fingerprint, String body) {
+
+    public static IdempotentResponse pending(String fingerprint) {
+        return new IdempotentResponse(fingerprint, null);
+    }
+
+    public boolean isPending() {
+        return body == null;
+    }
+}
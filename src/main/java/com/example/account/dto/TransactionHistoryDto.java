@@ -0,0 +1,20 @@
+package com.example.account.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+public class TransactionHistoryDto {
+    private List<TransactionDto> transactions;
+    private String nextCursor;
+
+    @Builder
+    public TransactionHistoryDto(List<TransactionDto> transactions, String nextCursor) {
+        this.transactions = transactions;
+        this.nextCursor = nextCursor;
+    }
+}
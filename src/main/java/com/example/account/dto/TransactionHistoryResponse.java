@@ -0,0 +1,32 @@
+package com.example.account.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Getter
+@Setter
+public class TransactionHistoryResponse {
+    private List<QueryTransactionResponse> transactions;
+    // 다음 페이지 요청 시 cursor 로 전달, 마지막 페이지면 null
+    private String nextCursor;
+
+    @Builder
+    public TransactionHistoryResponse(List<QueryTransactionResponse> transactions,
+                                      String nextCursor) {
+        this.transactions = transactions;
+        this.nextCursor = nextCursor;
+    }
+
+    public static TransactionHistoryResponse from(TransactionHistoryDto transactionHistoryDto) {
+        return TransactionHistoryResponse.builder()
+            .transactions(transactionHistoryDto.getTransactions().stream()
+                .map(QueryTransactionResponse::from)
+                .collect(Collectors.toList()))
+            .nextCursor(transactionHistoryDto.getNextCursor())
+            .build();
+    }
+}
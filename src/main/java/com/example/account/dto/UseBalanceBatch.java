@@ -0,0 +1,91 @@
+package com.example.account.dto;
+
+import com.example.account.exception.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class UseBalanceBatch {
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Request {
+        @NotEmpty
+        @Size(max = 1000)
+        @Valid
+        private List<UseBalance.Request> requests;
+
+        public Request(List<UseBalance.Request> requests) {
+            this.requests = requests;
+        }
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Response {
+        private List<Result> results;
+
+        public Response(List<Result> results) {
+            this.results = results;
+        }
+    }
+
+    /**
+     * 요청 순서(index)별 처리 결과 - 실패하면 errorCode 가 채워진다
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Result {
+        private int index;
+        private String accountNumber;
+        private TransactionResultType transactionResultType;
+        private String transactionId;
+        private Long amount;
+        private LocalDateTime transactedAt;
+        private ErrorCode errorCode;
+        private String errorMessage;
+
+        @Builder
+        public Result(int index, String accountNumber, TransactionResultType transactionResultType, String transactionId,
+                      Long amount, LocalDateTime transactedAt, ErrorCode errorCode, String errorMessage) {
+            this.index = index;
+            this.accountNumber = accountNumber;
+            this.transactionResultType = transactionResultType;
+            this.transactionId = transactionId;
+            this.amount = amount;
+            this.transactedAt = transactedAt;
+            this.errorCode = errorCode;
+            this.errorMessage = errorMessage;
+        }
+
+        public static Result success(TransactionDto transactionDto) {
+            return Result.builder()
+                .accountNumber(transactionDto.getAccountNumber())
+                .transactionResultType(transactionDto.getTransactionResultType())
+                .transactionId(transactionDto.getTransactionId())
+                .amount(transactionDto.getAmount())
+                .transactedAt(transactionDto.getTransactedAt())
+                .build();
+        }
+
+        public static Result failure(String accountNumber, Long amount, ErrorCode errorCode) {
+            return Result.builder()
+                .accountNumber(accountNumber)
+                .transactionResultType(TransactionResultType.FAILED)
+                .amount(amount)
+                .errorCode(errorCode)
+                .errorMessage(errorCode.getDescription())
+                .build();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.account.dto;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 사용자의 사용 중인 계좌 목록과 그 내용으로 만든 ETag
+ */
+public record UserAccounts(List<AccountInfo> accounts, String etag) {
+
+    public static UserAccounts of(List<AccountInfo> accounts) {
+        StringBuilder content = new StringBuilder();
+        for (AccountInfo account : accounts) {
+            content.append(account.getAccountNumber())
+                .append(':')
+                .append(account.getBalance())
+                .append('\n');
+        }
+        return new UserAccounts(List.copyOf(accounts),
+            DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+}
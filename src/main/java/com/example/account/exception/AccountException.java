@@ -8,9 +8,16 @@ import lombok.NoArgsConstructor;
 public class AccountException extends RuntimeException {
     private ErrorCode errorCode;
     private String message;
+    // 실패한 시점에 서비스가 읽어 둔 잔액 (실패 거래 기록용, 모르면 null)
+    private Long balanceSnapshot;
 
     public AccountException(ErrorCode errorCode) {
         this.message = errorCode.getDescription();
         this.errorCode = errorCode;
     }
+
+    public AccountException(ErrorCode errorCode, Long balanceSnapshot) {
+        this(errorCode);
+        this.balanceSnapshot = balanceSnapshot;
+    }
 }
@@ -13,6 +13,8 @@ public enum ErrorCode {
     USER_ACCOUNT_UN_MATCH("사용자와 계좌의 소유가 다릅니다."),
     ACCOUNT_NOT_FOUND("계좌를 찾을 수 없습니다"),
     ACCOUNT_TRANSACTION_LOCK("해당 계좌는 사용 중입니다"),
+    ACCOUNT_TRANSACTION_QUEUE_FULL("해당 계좌의 거래 대기열이 가득 찼습니다"),
+    ACCOUNT_LOCK_UNAVAILABLE("계좌 락을 사용할 수 없어 거래를 처리할 수 없습니다"),
     ACCOUNT_ALREADY_UNREGISTERED("계좌가 이미 해지되었습니다."),
     AMOUNT_EXCEED_BALANCE("거래금액이 개좌 잔액보다 큽니다"),
     BALANCE_NOT_EMPTY("잔액이 있는 계좌는 해지할 수 없습니다."),
@@ -20,6 +22,9 @@ public enum ErrorCode {
     TRANSACTION_ACCOUNT_UN_MATCH("이 거래는 해당 계좌에서 발생한 거래가 아닙니다"),
     CANCEL_MUST_FULLY("부분 취소는 허용되지 않습니다"),
     TOO_OLD_ORDER_TO_CANCEL("1년이 지난 거래는 취소가 불가능 합니다."),
+    IDEMPOTENCY_KEY_IN_PROGRESS("같은 Idempotency-Key 로 처리 중인 요청이 있습니다"),
+    IDEMPOTENCY_KEY_REUSED("Idempotency-Key 가 다른 요청에 이미 사용되었습니다"),
+    IDEMPOTENCY_STORE_UNAVAILABLE("Idempotency-Key 저장소를 사용할 수 없어 요청을 처리할 수 없습니다"),
     ;
 
     private String description;
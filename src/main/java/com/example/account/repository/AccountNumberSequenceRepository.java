@@ -0,0 +1,12 @@
+package com.example.account.repository;
+
+/**
+ * 계좌번호 시퀀스 조회 - DB 마다 다른 시퀀스 SQL 은 구현체에서 Hibernate dialect 로 만든다
+ */
+public interface AccountNumberSequenceRepository {
+    // 계좌번호 블록의 시작 번호
+    Long nextAccountNumberBlock();
+
+    // 블록 크기 (시퀀스의 INCREMENT BY)
+    long findAccountNumberBlockSize();
+}
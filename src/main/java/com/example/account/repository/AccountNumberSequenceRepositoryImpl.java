@@ -0,0 +1,41 @@
+package com.example.account.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class AccountNumberSequenceRepositoryImpl implements AccountNumberSequenceRepository {
+    private static final String SEQUENCE_NAME = "account_number_seq";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Long nextAccountNumberBlock() {
+        String sql = dialect().getSequenceSupport().getSequenceNextValString(SEQUENCE_NAME);
+        return ((Number) entityManager.createNativeQuery(sql).getSingleResult()).longValue();
+    }
+
+    // INFORMATION_SCHEMA.SEQUENCES 는 표준 뷰라 대부분의 DB 에서 같은 SQL 로 읽힌다 (PostgreSQL 은 값이 문자열)
+    @Override
+    public long findAccountNumberBlockSize() {
+        List<?> increments = entityManager.createNativeQuery(
+                "SELECT INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES WHERE UPPER(SEQUENCE_NAME) = UPPER(:name)")
+            .setParameter("name", SEQUENCE_NAME)
+            .getResultList();
+        if (increments.size() != 1) {
+            throw new IllegalStateException("Sequence " + SEQUENCE_NAME + " not found");
+        }
+        return Long.parseLong(String.valueOf(increments.get(0)));
+    }
+
+    private Dialect dialect() {
+        return entityManager.getEntityManagerFactory()
+            .unwrap(SessionFactoryImplementor.class)
+            .getJdbcServices()
+            .getDialect();
+    }
+}
@@ -1,21 +1,50 @@
 package com.example.account.repository;
 
 import com.example.account.domain.Account;
+import com.example.account.dto.AccountOwnership;
 import com.example.account.type.AccountStatus;
 import com.example.account.domain.AccountUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AccountRepository extends JpaRepository<Account, Long> {
-    Integer countByAccountUser(AccountUser user);
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountNumberSequenceRepository {
     Optional<Account> findByAccountNumber(String accountNumber);
-    Optional<Account> findFirstByOrderByIdDesc();
+
+    List<Account> findByAccountNumberIn(Collection<String> accountNumbers);
+
+    // 소유자/상태 검증용 - 사용자는 join 하지 않고 FK 값만 읽는다
+    @Query("select new com.example.account.dto.AccountOwnership(a.id, a.accountUser.id, a.accountStatus) " +
+        "from Account a where a.accountNumber = :accountNumber")
+    Optional<AccountOwnership> findOwnershipByAccountNumber(@Param("accountNumber") String accountNumber);
 
     List<Account> findByAccountUser(AccountUser accountUser);
 
     List<Account> findByAccountUserAndAccountStatus(AccountUser user, AccountStatus accountStatus);
+
+    // 잔액이 충분할 때만 차감, 갱신된 행 수(0 또는 1)를 돌려준다
+    @Modifying
+    @Query("update Account a set a.balance = a.balance - :amount, a.version = a.version + 1, a.updatedAt = local datetime " +
+        "where a.id = :id and a.accountStatus = com.example.account.type.AccountStatus.IN_USE and a.balance >= :amount")
+    int decreaseBalance(@Param("id") Long id, @Param("amount") Long amount);
+
+    // 사용 중인 계좌일 때만 증액, 갱신된 행 수(0 또는 1)를 돌려준다
+    @Modifying
+    @Query("update Account a set a.balance = a.balance + :amount, a.version = a.version + 1, a.updatedAt = local datetime " +
+        "where a.id = :id and a.accountStatus = com.example.account.type.AccountStatus.IN_USE")
+    int increaseBalance(@Param("id") Long id, @Param("amount") Long amount);
+
+    @Query("select a.balance from Account a where a.id = :id")
+    Long findBalanceById(@Param("id") Long id);
+
+    // 조건부 UPDATE 가 0건일 때 원인(해지/삭제)을 가리기 위한 조회
+    @Query("select a.accountStatus from Account a where a.id = :id")
+    Optional<AccountStatus> findStatusById(@Param("id") Long id);
 }
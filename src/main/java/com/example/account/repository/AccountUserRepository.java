@@ -1,7 +1,11 @@
 package com.example.account.repository;
 
 import com.example.account.domain.AccountUser;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,4 +13,9 @@ import java.util.Optional;
 @Repository
 public interface AccountUserRepository extends JpaRepository<AccountUser, Long> {
     Optional<AccountUser> findById(Long userId);
+
+    // 계좌 수를 바꿀 때 - 같은 사용자의 동시 생성/해지를 행 잠금으로 직렬화
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from AccountUser u where u.id = :id")
+    Optional<AccountUser> findByIdForUpdate(@Param("id") Long userId);
 }
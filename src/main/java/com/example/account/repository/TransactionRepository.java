@@ -1,11 +1,50 @@
 package com.example.account.repository;
 
+import com.example.account.domain.Account;
 import com.example.account.domain.Transaction;
+import com.example.account.dto.CachedTransaction;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
     Optional<Transaction> findByTransactionId(String transactionId);
+
+    // 실패 거래 재저장 시 이미 저장된 거래 ID 를 걸러내기 위한 조회
+    @Query("select t.transactionId from Transaction t where t.transactionId in :transactionIds")
+    List<String> findTransactionIdsIn(@Param("transactionIds") Collection<String> transactionIds);
+
+    // 거래 조회/취소 검증용 - 엔티티를 만들지 않고 join 한 번으로 캐시 값을 바로 채운다
+    // 캐시 miss 때만 불리므로 자체 readOnly 트랜잭션으로 replica 에서 읽는다 (취소처럼 쓰기 트랜잭션 안이면 거기에 참여)
+    @Transactional(readOnly = true)
+    @Query("select new com.example.account.dto.CachedTransaction(" +
+        "t.transactionId, a.id, a.accountNumber, t.amount, t.balanceSnapshot, " +
+        "t.transactionAt, t.transactionResultType, t.transactionType) " +
+        "from Transaction t join t.account a " +
+        "where t.transactionId = :transactionId")
+    Optional<CachedTransaction> findCachedByTransactionId(@Param("transactionId") String transactionId);
+
+    // (account_id, transaction_at, id) 인덱스를 타는 keyset 페이지 조회 - 커서 이후(과거 방향)만 읽는다
+    @Query("select t from Transaction t " +
+        "where t.account = :account " +
+        "and (t.transactionAt < :cursorAt or (t.transactionAt = :cursorAt and t.id < :cursorId)) " +
+        "and (:transactionType is null or t.transactionType = :transactionType) " +
+        "and (:transactionResultType is null or t.transactionResultType = :transactionResultType) " +
+        "order by t.transactionAt desc, t.id desc")
+    List<Transaction> findHistory(@Param("account") Account account,
+                                  @Param("cursorAt") LocalDateTime cursorAt,
+                                  @Param("cursorId") Long cursorId,
+                                  @Param("transactionType") TransactionType transactionType,
+                                  @Param("transactionResultType") TransactionResultType transactionResultType,
+                                  Pageable pageable);
 }
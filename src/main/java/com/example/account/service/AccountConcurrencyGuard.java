@@ -0,0 +1,108 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.exception.ErrorCode;
+import com.example.account.type.TransactionConcurrencyMode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * account.transaction.concurrency-mode 에 따라 계좌 거래를 보호한다
+ * 동기 경로(@AccountLock)와 비동기 경로(/async)가 같은 분기를 쓴다
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountConcurrencyGuard {
+    private final LockProvider lockProvider;
+    private final AccountMailboxExecutor accountMailboxExecutor;
+
+    @Value("${account.transaction.concurrency-mode:LOCK}")
+    private TransactionConcurrencyMode concurrencyMode = TransactionConcurrencyMode.LOCK;
+
+    @Value("${account.transaction.optimistic.max-attempts:5}")
+    private int optimisticMaxAttempts = 5;
+
+    @Value("${account.transaction.optimistic.backoff-ms:10}")
+    private long optimisticBackoffMillis = 10L;
+
+    /**
+     * @param waitMillis  락을 기다리는 최대 시간 (LOCK 모드)
+     * @param leaseMillis 락을 잡고 있을 수 있는 최대 시간 (LOCK 모드)
+     * @param endpoint    메트릭 태그
+     */
+    public Object execute(String accountNumber, long waitMillis, long leaseMillis, String endpoint,
+                          AccountMailboxExecutor.GuardedCall call) throws Throwable {
+        if (concurrencyMode == TransactionConcurrencyMode.QUEUE) {
+            // 계좌 대기열에 넣고 해당 계좌의 작업자가 순서대로 처리
+            return accountMailboxExecutor.execute(accountNumber, call);
+        }
+        if (concurrencyMode == TransactionConcurrencyMode.OPTIMISTIC) {
+            // 락 없이 실행, 계좌 version 충돌 시에만 재시도
+            return callWithRetry(call, accountNumber);
+        }
+        if (concurrencyMode == TransactionConcurrencyMode.ATOMIC) {
+            // 잔액 검사와 차감을 UPDATE 한 문장으로 처리하므로 락이 필요 없다
+            return call.call();
+        }
+
+        lockProvider.lock(accountNumber, waitMillis, leaseMillis, endpoint);
+        try {
+            return call.call();
+        } finally {
+            lockProvider.unlock(accountNumber);
+        }
+    }
+
+    /**
+     * 비동기 버전 - LOCK 모드는 LockProvider 의 비동기 경로로 락을 기다리고,
+     * QUEUE/OPTIMISTIC 은 executor 스레드에서 동기 경로와 똑같이 처리한다
+     */
+    public <T> CompletableFuture<T> executeAsync(String accountNumber, long waitMillis, long leaseMillis, String endpoint,
+                                                 Supplier<T> action, Executor executor) {
+        if (concurrencyMode == TransactionConcurrencyMode.LOCK) {
+            return lockProvider.executeAsync(accountNumber, waitMillis, leaseMillis, endpoint, action, executor);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                @SuppressWarnings("unchecked")
+                T result = (T) execute(accountNumber, waitMillis, leaseMillis, endpoint, action::get);
+                return result;
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new CompletionException(t);
+            }
+        }, executor);
+    }
+
+    private Object callWithRetry(AccountMailboxExecutor.GuardedCall call, String accountNumber) throws Throwable {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call.call();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= optimisticMaxAttempts) {
+                    log.error("======Optimistic retry exhausted for accountNumber : {}=====", accountNumber);
+                    throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+                }
+                log.debug("Optimistic conflict for accountNumber : {}, attempt : {}", accountNumber, attempt);
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) throws InterruptedException {
+        // 지수 백오프 + jitter 로 같은 계좌 재시도끼리 다시 부딪히지 않게 한다
+        long maxDelay = optimisticBackoffMillis << Math.min(attempt - 1, 10);
+        Thread.sleep(ThreadLocalRandom.current().nextLong(maxDelay + 1));
+    }
+}
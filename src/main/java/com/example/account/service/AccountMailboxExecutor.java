@@ -0,0 +1,235 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.exception.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 계좌별 대기열(mailbox)에 거래를 쌓고, 계좌당 하나의 작업자만 순서대로 처리한다
+ * 작업자는 한 번의 처리 주기 동안 계좌 락을 한 번만 잡는다
+ */
+@Slf4j
+@Component
+public class AccountMailboxExecutor {
+    private final LockProvider lockProvider;
+    private final ExecutorService executor;
+    private final int capacity;
+    private final long timeoutMillis;
+
+    private final ConcurrentHashMap<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final AtomicInteger queuedCount = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    public AccountMailboxExecutor(LockProvider lockProvider,
+                                  BackgroundThreads backgroundThreads,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${account.transaction.queue.capacity:100}") int capacity,
+                                  @Value("${account.transaction.queue.workers:16}") int workers,
+                                  @Value("${account.transaction.queue.timeout-ms:5000}") long timeoutMillis) {
+        this.lockProvider = lockProvider;
+        this.capacity = capacity;
+        this.timeoutMillis = timeoutMillis;
+        // 가상 스레드여도 작업자 수는 제한한다 - 동시에 DB 커넥션을 잡는 계좌 수의 상한
+        this.executor = Executors.newFixedThreadPool(workers, backgroundThreads.factory("account-mailbox-"));
+
+        Gauge.builder("account.transaction.queue.depth", queuedCount, AtomicInteger::get)
+            .description("계좌 대기열에 쌓인 거래 수")
+            .register(meterRegistry);
+        this.waitTimer = Timer.builder("account.transaction.queue.wait")
+            .description("대기열에 들어간 뒤 처리가 시작될 때까지의 시간")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("account.transaction.queue.rejected")
+            .description("대기열이 가득 차서 거절된 거래 수")
+            .register(meterRegistry);
+    }
+
+    public Object execute(String accountNumber, GuardedCall call) throws Throwable {
+        Task task = new Task(call);
+        AtomicBoolean accepted = new AtomicBoolean();
+        // 넣기와 drain 의 빈 mailbox 제거가 같은 키의 compute 안에서 차례로 일어나게 해
+        // 제거된 mailbox 에 거래를 넣어 같은 계좌의 작업자가 둘이 되는 일을 막는다
+        Mailbox mailbox = mailboxes.compute(accountNumber, (key, current) -> {
+            Mailbox target = current != null ? current : new Mailbox(key, capacity);
+            accepted.set(target.tasks.offer(task));
+            return target;
+        });
+
+        if (!accepted.get()) {
+            rejectedCounter.increment();
+            log.error("======Mailbox is full for accountNumber : {}=====", accountNumber);
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_QUEUE_FULL);
+        }
+        queuedCount.incrementAndGet();
+        schedule(mailbox);
+
+        return await(task);
+    }
+
+    private Object await(Task task) throws Throwable {
+        try {
+            try {
+                return task.result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // 아직 시작하지 않은 거래만 취소, 이미 실행 중이면 결과를 기다린다
+                if (task.claim()) {
+                    throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+                }
+                return task.result.get();
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.claim();
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+    }
+
+    private void schedule(Mailbox mailbox) {
+        if (mailbox.scheduled.compareAndSet(false, true)) {
+            executor.execute(() -> drain(mailbox));
+        }
+    }
+
+    private void drain(Mailbox mailbox) {
+        try {
+            List<Task> batch = pollBatch(mailbox.tasks);
+            if (!batch.isEmpty()) {
+                runBatch(mailbox.accountNumber, batch);
+            }
+        } finally {
+            if (!release(mailbox)) {
+                // 남은 거래가 있으면 예약을 풀지 않고 이 작업자가 이어서 처리한다
+                executor.execute(() -> drain(mailbox));
+            }
+        }
+    }
+
+    /**
+     * 비어 있으면 map 에서 빼고 예약을 푼다, 남은 거래가 있으면 false
+     * 확인/제거/예약 해제를 execute 의 넣기와 같은 키의 compute 안에서 하므로
+     * 예약이 풀린 뒤에는 이 mailbox 에 거래가 들어올 수 없고, 새 mailbox 의 작업자와 동시에 돌지 않는다
+     */
+    private boolean release(Mailbox mailbox) {
+        AtomicBoolean released = new AtomicBoolean();
+        mailboxes.compute(mailbox.accountNumber, (key, current) -> {
+            // 이미 빠진 mailbox (제거 직후 execute 가 예약한 경우) 는 거래가 들어올 수 없으므로 예약만 푼다
+            if (current != mailbox || mailbox.tasks.isEmpty()) {
+                mailbox.scheduled.set(false);
+                released.set(true);
+                return current == mailbox ? null : current;
+            }
+            return current;
+        });
+        return released.get();
+    }
+
+    private List<Task> pollBatch(Queue<Task> tasks) {
+        List<Task> batch = new ArrayList<>();
+        Task task;
+        while (batch.size() < capacity && (task = tasks.poll()) != null) {
+            queuedCount.decrementAndGet();
+            batch.add(task);
+        }
+        return batch;
+    }
+
+    private void runBatch(String accountNumber, List<Task> batch) {
+        // 거래가 락 트랜잭션에 참여하는 구현(DATABASE)은 한 거래의 실패가 다른 거래를 롤백하지 않도록 건별로 잡는다
+        if (lockProvider.isTransactional()) {
+            batch.forEach(task -> runLocked(accountNumber, List.of(task)));
+            return;
+        }
+        runLocked(accountNumber, batch);
+    }
+
+    private void runLocked(String accountNumber, List<Task> batch) {
+        try {
+            lockProvider.lock(accountNumber);
+        } catch (AccountException e) {
+            batch.stream()
+                .filter(Task::claim)
+                .forEach(task -> task.result.completeExceptionally(e));
+            return;
+        }
+
+        try {
+            for (Task task : batch) {
+                task.run(waitTimer);
+            }
+        } finally {
+            lockProvider.unlock(accountNumber);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @FunctionalInterface
+    public interface GuardedCall {
+        Object call() throws Throwable;
+    }
+
+    private static class Mailbox {
+        private final String accountNumber;
+        private final Queue<Task> tasks;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Mailbox(String accountNumber, int capacity) {
+            this.accountNumber = accountNumber;
+            this.tasks = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+
+    private static class Task {
+        private final GuardedCall call;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final long enqueuedAt = System.nanoTime();
+
+        private Task(GuardedCall call) {
+            this.call = call;
+        }
+
+        // 작업자(실행)와 요청 스레드(시간 초과 취소) 중 먼저 가져간 쪽만 결과를 정한다
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        private void run(Timer waitTimer) {
+            if (!claim()) {
+                return;
+            }
+            waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+            try {
+                result.complete(call.call());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.account.service;
+
+import com.example.account.repository.AccountRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * DB 시퀀스에서 계좌번호를 블록 단위로 예약해 두고
+ * 노드 메모리에서 CAS 로 하나씩 나눠준다
+ * 블록 크기는 설정으로 따로 두지 않고 시퀀스의 INCREMENT BY 를 읽어 쓴다 (어긋나면 번호가 겹치거나 빈다)
+ */
+@Component
+public class AccountNumberAllocator {
+    private final AccountRepository accountRepository;
+    private long blockSize;
+
+    private final AtomicReference<Block> current = new AtomicReference<>(new Block(0, 0));
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    public AccountNumberAllocator(AccountRepository accountRepository) {
+        this.accountRepository = accountRepository;
+    }
+
+    public String nextAccountNumber() {
+        while (true) {
+            Block block = current.get();
+            long number = block.next.getAndIncrement();
+            if (number < block.limit) {
+                return String.valueOf(number);
+            }
+            refill(block);
+        }
+    }
+
+    // 블록을 다 쓴 스레드 중 하나만 새 블록을 받아온다
+    private void refill(Block exhausted) {
+        refillLock.lock();
+        try {
+            if (current.get() == exhausted) {
+                long start = accountRepository.nextAccountNumberBlock();
+                current.set(new Block(start, start + blockSize()));
+            }
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    // refillLock 안에서만 부른다, 처음 한 번만 DB 에서 읽는다
+    private long blockSize() {
+        if (blockSize == 0) {
+            long increment = accountRepository.findAccountNumberBlockSize();
+            if (increment <= 0) {
+                throw new IllegalStateException("account_number_seq must increment by a positive block size: " + increment);
+            }
+            blockSize = increment;
+        }
+        return blockSize;
+    }
+
+    private static class Block {
+        private final AtomicLong next;
+        private final long limit;
+
+        private Block(long start, long limit) {
+            this.next = new AtomicLong(start);
+            this.limit = limit;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.account.service;
+
+import com.example.account.dto.AccountOwnership;
+import com.example.account.repository.AccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * 계좌번호 -> (계좌 ID, 소유자 ID, 상태) near-cache
+ * 계좌 생성/해지 시 무효화하고, 다른 노드에는 redis pub/sub 으로 알린다
+ */
+@Component
+public class AccountOwnershipCache {
+    private static final String INVALIDATION_TOPIC = "account-ownership-invalidation";
+
+    private final AccountRepository accountRepository;
+    private final InvalidatingNearCache<String, AccountOwnership> cache;
+
+    public AccountOwnershipCache(AccountRepository accountRepository,
+                                 RedissonClient redissonClient,
+                                 @Qualifier("cacheCircuitBreaker") RedisCircuitBreaker circuitBreaker,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${account.ownership.cache.max-size:100000}") long maxSize,
+                                 @Value("${account.ownership.cache.ttl:PT10M}") Duration ttl) {
+        this.accountRepository = accountRepository;
+        this.cache = new InvalidatingNearCache<>("accountOwnership", INVALIDATION_TOPIC, Function.identity(),
+            redissonClient, circuitBreaker, meterRegistry, maxSize, ttl);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        cache.subscribe();
+    }
+
+    // 같은 계좌를 동시에 읽어도 DB 조회는 한 번, 없는 계좌는 캐시하지 않는다
+    public Optional<AccountOwnership> get(String accountNumber) {
+        return Optional.ofNullable(cache.get(accountNumber,
+            key -> accountRepository.findOwnershipByAccountNumber(key).orElse(null)));
+    }
+
+    public void evictAfterCommit(String accountNumber) {
+        cache.evictAfterCommit(accountNumber);
+    }
+}
@@ -3,14 +3,17 @@ package com.example.account.service;
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
 import com.example.account.dto.AccountDto;
+import com.example.account.dto.AccountInfo;
+import com.example.account.dto.UserAccounts;
 import com.example.account.exception.AccountException;
 import com.example.account.exception.ErrorCode;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
 import com.example.account.type.AccountStatus;
-import jakarta.transaction.Transactional;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,10 +23,32 @@ import static com.example.account.exception.ErrorCode.USER_NOT_FOUND;
 
 
 @Service
-@RequiredArgsConstructor
 public class AccountService {
     private final AccountRepository accountRepository;
     private final AccountUserRepository accountUserRepository;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final AccountOwnershipCache accountOwnershipCache;
+    private final UserAccountsCache userAccountsCache;
+
+    // 캐시 loader 는 자기 호출이라 @Transactional 프록시를 거치지 않으므로 직접 readOnly 트랜잭션을 연다
+    private final TransactionTemplate readOnlyTransaction;
+
+    private static final int MAX_ACCOUNT_PER_USER = 10;
+
+    public AccountService(AccountRepository accountRepository,
+                          AccountUserRepository accountUserRepository,
+                          AccountNumberAllocator accountNumberAllocator,
+                          AccountOwnershipCache accountOwnershipCache,
+                          UserAccountsCache userAccountsCache,
+                          PlatformTransactionManager transactionManager) {
+        this.accountRepository = accountRepository;
+        this.accountUserRepository = accountUserRepository;
+        this.accountNumberAllocator = accountNumberAllocator;
+        this.accountOwnershipCache = accountOwnershipCache;
+        this.userAccountsCache = userAccountsCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
 
     /**
      * 사용자가 있는지 조회
@@ -32,13 +57,19 @@ public class AccountService {
      */
     @Transactional
     public AccountDto createAccount(Long userId, Long initialBalance) {
-        AccountUser user = getAccountUser(userId);
+        AccountUser user = accountUserRepository.findByIdForUpdate(userId)
+            .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
 
-        validateCreateAccount(user);
+        // 잠근 사용자 행에서 한도 확인과 증가를 함께 한다
+        user.increaseAccountCount(MAX_ACCOUNT_PER_USER);
+
+        String accountNumber = accountNumberAllocator.nextAccountNumber();
+        accountOwnershipCache.evictAfterCommit(accountNumber);
+        userAccountsCache.evictAfterCommit(userId);
 
         return AccountDto.fromEntity(
             accountRepository.save(Account.builder()
-                .accountNumber(generateAccountNumber())
+                .accountNumber(accountNumber)
                 .accountStatus(AccountStatus.IN_USE)
                 .accountUser(user)
                 .balance(initialBalance)
@@ -46,7 +77,7 @@ public class AccountService {
                 .build()));
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<AccountDto> getAccountByUserId(Long userId) {
         AccountUser user = getAccountUser(userId);
 
@@ -58,16 +89,29 @@ public class AccountService {
 
     }
 
+    /**
+     * 계좌 목록 조회 (캐시)
+     * 캐시에 있으면 트랜잭션 없이 바로 돌려주고, 없으면 readOnly 트랜잭션(replica)에서 읽는다
+     */
+    public UserAccounts getAccountInfos(Long userId) {
+        return userAccountsCache.get(userId, key -> readOnlyTransaction.execute(status -> UserAccounts.of(
+            getAccountByUserId(key).stream()
+                .map(AccountInfo::from)
+                .collect(Collectors.toList()))));
+    }
+
     @Transactional
     public AccountDto closeAccount(Long userId, String accountNumber) {
-        AccountUser user = getAccountUser(userId);
-
         Account account = accountRepository.findByAccountNumber(accountNumber)
             .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
 
-        validateCloseAccount(account, user);
+        validateCloseAccount(account, userId);
 
         account.unregisterAccount();
+        accountUserRepository.findByIdForUpdate(userId)
+            .ifPresent(AccountUser::decreaseAccountCount);
+        accountOwnershipCache.evictAfterCommit(accountNumber);
+        userAccountsCache.evictAfterCommit(userId);
 
        return AccountDto.fromEntity(account);
 
@@ -80,8 +124,12 @@ public class AccountService {
     }
 
 
-    private void validateCloseAccount(Account account, AccountUser user) {
-        if (!account.getAccountUser().getId().equals(user.getId())) {
+    // 소유자 비교는 계좌의 FK 값으로 하고, 사용자는 실패할 때만 조회한다
+    private void validateCloseAccount(Account account, Long userId) {
+        if (!account.getAccountUser().getId().equals(userId)) {
+            if (!accountUserRepository.existsById(userId)) {
+                throw new AccountException(USER_NOT_FOUND);
+            }
             throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH);
         }
         if (account.getAccountStatus() == AccountStatus.UNREGISTERED) {
@@ -93,18 +141,4 @@ public class AccountService {
     }
 
 
-    private void validateCreateAccount(AccountUser user) {
-        if (accountRepository.countByAccountUser(user) >= 10) {
-            throw new AccountException(ErrorCode.USER_ACCOUNT_PER_USER_10);
-        }
-    }
-
-    private String generateAccountNumber() {
-        return accountRepository.findFirstByOrderByIdDesc()
-            .map(account -> (Integer.parseInt((account.getAccountNumber()))) + 1 + "")
-            .orElse("1000000000");
-    }
-
-
-
 }
@@ -0,0 +1,45 @@
+package com.example.account.service;
+
+import com.example.account.aop.AccountLock;
+import com.example.account.dto.TransactionDto;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * 잔액 사용/취소의 비동기 버전
+ * 동기 엔드포인트(@AccountLock 기본값)와 같은 대기/lease 시간, 같은 concurrency-mode 분기로 보호한다
+ * LOCK 모드에서 REDIS 락은 기다리는 동안 스레드를 붙잡지 않는다
+ */
+@Service
+public class AsyncTransactionService {
+    private final TransactionService transactionService;
+    private final AccountConcurrencyGuard accountConcurrencyGuard;
+    private final Executor executor;
+
+    public AsyncTransactionService(TransactionService transactionService,
+                                   AccountConcurrencyGuard accountConcurrencyGuard,
+                                   @Qualifier("applicationTaskExecutor") Executor executor) {
+        this.transactionService = transactionService;
+        this.accountConcurrencyGuard = accountConcurrencyGuard;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<TransactionDto> useBalance(Long userId, String accountNumber, Long amount) {
+        return withLock(accountNumber, "AsyncTransactionService.useBalance(..)",
+            () -> transactionService.useBalance(userId, accountNumber, amount));
+    }
+
+    public CompletableFuture<TransactionDto> cancelBalance(String transactionId, String accountNumber, Long amount) {
+        return withLock(accountNumber, "AsyncTransactionService.cancelBalance(..)",
+            () -> transactionService.cancelBalance(transactionId, accountNumber, amount));
+    }
+
+    private <T> CompletableFuture<T> withLock(String accountNumber, String endpoint, Supplier<T> action) {
+        return accountConcurrencyGuard.executeAsync(accountNumber,
+            AccountLock.DEFAULT_TRY_LOCK_TIME, AccountLock.DEFAULT_LEASE_TIME, endpoint, action, executor);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.account.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 백그라운드 작업자(계좌 대기열, 실패 거래 기록) 스레드 생성
+ * spring.threads.virtual.enabled=true 이고 Java 21 이상에서 실행되면 가상 스레드를 쓴다
+ */
+@Component
+public class BackgroundThreads {
+    private final boolean virtual;
+
+    @Autowired
+    public BackgroundThreads(Environment environment) {
+        this(Threading.VIRTUAL.isActive(environment));
+    }
+
+    public BackgroundThreads(boolean virtual) {
+        this.virtual = virtual;
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public ThreadFactory factory(String namePrefix) {
+        return virtual
+            ? new VirtualThreadTaskExecutor(namePrefix).getVirtualThreadFactory()
+            : new CustomizableThreadFactory(namePrefix);
+    }
+}
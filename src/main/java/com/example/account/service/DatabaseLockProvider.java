@@ -0,0 +1,92 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.exception.AccountException;
+import com.example.account.exception.ErrorCode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.PessimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 계좌 행 비관적 락 (SELECT ... FOR UPDATE)
+ * 락을 잡으면서 트랜잭션을 시작하고, 보호되는 메서드 안의 @Transactional 은 이 트랜잭션에 참여한다
+ * unlock 에서 커밋(중간에 rollback-only 가 되었으면 롤백)하면서 행 락이 풀린다
+ * 대기 시간은 lock timeout 힌트로 넘긴다 (힌트를 지원하지 않는 DB 는 DB 의 lock timeout 설정을 따른다)
+ */
+@Slf4j
+public class DatabaseLockProvider implements LockProvider {
+    private static final String LOCK_TIMEOUT_HINT = "jakarta.persistence.lock.timeout";
+
+    // 현재 트랜잭션에 묶인 EntityManager (공유 프록시)
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    // 스레드가 잡은 락 트랜잭션 - 트랜잭션은 스레드에 묶이므로 계좌번호가 아니라 스레드 기준으로 보관한다
+    // (없는 계좌는 잠글 행이 없어 같은 계좌번호로 여러 스레드가 동시에 들어올 수 있다)
+    private final ThreadLocal<Deque<HeldTransaction>> transactions = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public DatabaseLockProvider(EntityManager entityManager,
+                                PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.transactionManager = transactionManager;
+    }
+
+    @Override
+    public void lock(String accountNumber, long waitMillis, long leaseMillis, String endpoint) {
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            // 없는 계좌는 잠글 행이 없다 - 이후 서비스 검증에서 ACCOUNT_NOT_FOUND 로 실패한다
+            entityManager.createQuery("select a from Account a where a.accountNumber = :accountNumber", Account.class)
+                .setParameter("accountNumber", accountNumber)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                // Hibernate 는 Integer(또는 String) 값만 받는다
+                .setHint(LOCK_TIMEOUT_HINT, (int) Math.min(waitMillis, Integer.MAX_VALUE))
+                .getResultList();
+        } catch (PessimisticLockException | LockTimeoutException e) {
+            log.error("======Row lock acquisition failed=====");
+            transactionManager.rollback(status);
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        } catch (RuntimeException e) {
+            transactionManager.rollback(status);
+            throw e;
+        }
+        transactions.get().push(new HeldTransaction(accountNumber, status));
+    }
+
+    @Override
+    public void unlock(String accountNumber) {
+        Deque<HeldTransaction> held = transactions.get();
+        HeldTransaction last = held.peek();
+        // 트랜잭션은 시작한 역순으로만 끝낼 수 있다
+        if (last == null || !last.accountNumber().equals(accountNumber)) {
+            log.error("======Unlock without lock for accountNumber : {}=====", accountNumber);
+            return;
+        }
+        held.pop();
+        if (held.isEmpty()) {
+            transactions.remove();
+        }
+
+        if (last.status().isRollbackOnly()) {
+            transactionManager.rollback(last.status());
+        } else {
+            transactionManager.commit(last.status());
+        }
+    }
+
+    @Override
+    public boolean isTransactional() {
+        return true;
+    }
+
+    private record HeldTransaction(String accountNumber, TransactionStatus status) {
+    }
+}
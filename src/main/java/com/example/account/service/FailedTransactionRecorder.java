@@ -0,0 +1,272 @@
+package com.example.account.service;
+
+import com.example.account.dto.FailedTransaction;
+import com.example.account.type.TransactionType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 실패 거래를 요청 스레드에서 바로 저장하지 않고 대기열에 넣어 두었다가
+ * 백그라운드 작업자가 모아서 한 번에 저장한다
+ * 대기열이 가득 차거나 저장에 실패하면 임시 파일(NDJSON)에 남기고,
+ * 작업자가 retry-interval-ms 마다(그리고 다음 기동 때) 다시 저장한다
+ * 거래 ID 는 기록할 때 정해 두므로 같은 실패 거래를 다시 저장해도 한 건만 남는다
+ * 읽을 수 없는 줄(기록 도중 죽어서 잘린 줄 등)은 .corrupt 파일로 옮긴다
+ */
+@Slf4j
+@Component
+public class FailedTransactionRecorder {
+    private final TransactionService transactionService;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<FailedTransaction> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long offerTimeoutMillis;
+    private final long retryIntervalMillis;
+    private final Path spillFile;
+    private final Path replayFile;
+    private final Path corruptFile;
+
+    private final ExecutorService writer;
+    private final ReentrantLock spillLock = new ReentrantLock();
+    private final Counter writtenCounter;
+    private final Counter spilledCounter;
+    private final Counter corruptCounter;
+    private volatile boolean running = true;
+
+    public FailedTransactionRecorder(TransactionService transactionService,
+                                     TransactionIdGenerator transactionIdGenerator,
+                                     BackgroundThreads backgroundThreads,
+                                     ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${account.transaction.failed.capacity:10000}") int capacity,
+                                     @Value("${account.transaction.failed.batch-size:500}") int batchSize,
+                                     @Value("${account.transaction.failed.flush-interval-ms:200}") long flushIntervalMillis,
+                                     @Value("${account.transaction.failed.offer-timeout-ms:10}") long offerTimeoutMillis,
+                                     @Value("${account.transaction.failed.retry-interval-ms:30000}") long retryIntervalMillis,
+                                     @Value("${account.transaction.failed.spill-file:failed-transactions.ndjson}") String spillFile) {
+        this.transactionService = transactionService;
+        this.transactionIdGenerator = transactionIdGenerator;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.retryIntervalMillis = retryIntervalMillis;
+        this.spillFile = Paths.get(spillFile);
+        this.replayFile = Paths.get(spillFile + ".replay");
+        this.corruptFile = Paths.get(spillFile + ".corrupt");
+        this.writer = Executors.newSingleThreadExecutor(backgroundThreads.factory("failed-transaction-writer-"));
+
+        Gauge.builder("account.transaction.failed.queue.depth", queue, BlockingQueue::size)
+            .description("저장을 기다리는 실패 거래 수")
+            .register(meterRegistry);
+        this.writtenCounter = Counter.builder("account.transaction.failed.written")
+            .description("DB 에 저장된 실패 거래 수")
+            .register(meterRegistry);
+        this.spilledCounter = Counter.builder("account.transaction.failed.spilled")
+            .description("임시 파일로 넘어간 실패 거래 수")
+            .register(meterRegistry);
+        this.corruptCounter = Counter.builder("account.transaction.failed.corrupt")
+            .description("임시 파일에서 읽지 못해 .corrupt 파일로 옮긴 줄 수")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.execute(this::run);
+    }
+
+    // 호출하는 쪽이 잔액을 모르면 저장할 때의 잔액을 쓴다 (그 사이 거래가 반영될 수 있는 근사값)
+    public void record(String accountNumber, Long amount, TransactionType transactionType) {
+        record(accountNumber, amount, transactionType, null);
+    }
+
+    /**
+     * @param balanceSnapshot 실패한 시점의 잔액 (서비스가 이미 읽은 값, 요청 스레드에서 DB 를 다시 읽지 않는다)
+     */
+    public void record(String accountNumber, Long amount, TransactionType transactionType, Long balanceSnapshot) {
+        FailedTransaction failedTransaction = new FailedTransaction(transactionIdGenerator.nextId(),
+            accountNumber, amount, transactionType, balanceSnapshot, LocalDateTime.now());
+        try {
+            if (queue.offer(failedTransaction, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 대기열이 계속 가득 차 있으면 요청 스레드를 붙잡지 않고 파일로 넘긴다
+        spill(List.of(failedTransaction));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.shutdown();
+        if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+            writer.shutdownNow();
+        }
+        List<FailedTransaction> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            spill(remaining);
+        }
+    }
+
+    private void run() {
+        replay();
+        long nextReplayAt = System.currentTimeMillis() + retryIntervalMillis;
+
+        List<FailedTransaction> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                // 재시작을 기다리지 않고 파일로 넘긴 실패 거래를 주기적으로 다시 저장한다
+                if (running && System.currentTimeMillis() >= nextReplayAt) {
+                    replay();
+                    nextReplayAt = System.currentTimeMillis() + retryIntervalMillis;
+                }
+                FailedTransaction first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                spill(batch);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<FailedTransaction> batch) {
+        try {
+            transactionService.saveFailedTransactions(List.copyOf(batch));
+            writtenCounter.increment(batch.size());
+        } catch (RuntimeException e) {
+            log.error("Failed transaction batch write failed, spilling {} records", batch.size(), e);
+            spill(batch);
+        }
+    }
+
+    private void spill(List<FailedTransaction> failedTransactions) {
+        if (failedTransactions.isEmpty()) {
+            return;
+        }
+        spillLock.lock();
+        try {
+            StringBuilder lines = new StringBuilder();
+            for (FailedTransaction failedTransaction : failedTransactions) {
+                lines.append(objectMapper.writeValueAsString(failedTransaction)).append('\n');
+            }
+            createParentDirectories(spillFile);
+            // 프로세스가 죽어도 남도록 디스크까지 내려쓴다
+            Files.writeString(spillFile, lines, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+            spilledCounter.increment(failedTransactions.size());
+        } catch (IOException e) {
+            log.error("Failed transaction spill failed, {} records lost", failedTransactions.size(), e);
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    /**
+     * 파일로 넘긴 실패 거래를 다시 저장한다 (다시 실패한 건 새 임시 파일로 가서 다음 주기에 재시도한다)
+     * 도중에 멈춰 같은 파일을 처음부터 다시 읽어도 이미 저장된 거래 ID 는 건너뛴다
+     */
+    private void replay() {
+        spillLock.lock();
+        try {
+            // 재처리 도중 죽었다면 .replay 파일이 이미 있으므로 그대로 이어서 처리한다
+            if (!Files.exists(replayFile) && Files.exists(spillFile)) {
+                Files.move(spillFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            log.error("Failed transaction spill file could not be claimed", e);
+            return;
+        } finally {
+            spillLock.unlock();
+        }
+        if (!Files.exists(replayFile)) {
+            return;
+        }
+
+        List<FailedTransaction> batch = new ArrayList<>(batchSize);
+        try (BufferedReader reader = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                FailedTransaction failedTransaction = parse(line);
+                if (failedTransaction == null) {
+                    continue;
+                }
+                batch.add(failedTransaction);
+                if (batch.size() == batchSize) {
+                    write(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+            Files.delete(replayFile);
+            log.info("Replayed failed transactions from {}", replayFile);
+        } catch (IOException e) {
+            log.error("Failed transaction replay failed", e);
+        }
+    }
+
+    // 읽을 수 없는 줄은 .corrupt 파일로 옮기고 나머지 줄은 계속 처리한다
+    private FailedTransaction parse(String line) throws IOException {
+        try {
+            return objectMapper.readValue(line, FailedTransaction.class);
+        } catch (JsonProcessingException e) {
+            log.error("Corrupt failed transaction line moved to {}", corruptFile, e);
+            createParentDirectories(corruptFile);
+            Files.writeString(corruptFile, line + '\n', StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+            corruptCounter.increment();
+            return null;
+        }
+    }
+
+    private static void createParentDirectories(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+    }
+}
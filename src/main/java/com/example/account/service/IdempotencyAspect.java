@@ -0,0 +1,230 @@
+package com.example.account.service;
+
+import com.example.account.dto.IdempotentResponse;
+import com.example.account.exception.AccountException;
+import com.example.account.exception.ErrorCode;
+import com.example.account.type.IdempotencyFallback;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Idempotency-Key 가 붙은 요청은 계좌 락(LockAopAspect)보다 먼저 처리한다
+ * - 이미 처리된 키: 저장된 응답을 돌려주고 락/DB 를 건드리지 않는다
+ * - 같은 노드에서 처리 중인 키: 먼저 들어온 실행 결과를 같이 기다린다
+ * - 다른 노드에서 처리 중인 키: 응답이 저장될 때까지 짧게 polling
+ * 비동기 응답(CompletionStage)은 거래가 끝난 뒤 결과를 저장하고, 저장된 응답도 완료된 future 로 돌려준다
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class IdempotencyAspect {
+    public static final String HEADER = "Idempotency-Key";
+    private static final long POLL_INTERVAL_MILLIS = 50L;
+
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+    private final Duration waitTimeout;
+    private final IdempotencyFallback fallback;
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Counter executedCounter;
+    private final Counter replayedCounter;
+    private final Counter coalescedCounter;
+    private final Counter unavailableCounter;
+
+    public IdempotencyAspect(IdempotencyStore idempotencyStore,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${account.idempotency.wait-timeout:PT5S}") Duration waitTimeout,
+                             @Value("${account.idempotency.store-fallback:REJECT}") IdempotencyFallback fallback) {
+        this.idempotencyStore = idempotencyStore;
+        this.objectMapper = objectMapper;
+        this.waitTimeout = waitTimeout;
+        this.fallback = fallback;
+        this.executedCounter = counter(meterRegistry, "executed");
+        this.replayedCounter = counter(meterRegistry, "replayed");
+        this.coalescedCounter = counter(meterRegistry, "coalesced");
+        this.unavailableCounter = counter(meterRegistry, "store-unavailable");
+    }
+
+    @Around("@annotation(com.example.account.aop.Idempotent) && args(request)")
+    public Object aroundMethod(ProceedingJoinPoint joinPoint, Object request) throws Throwable {
+        HttpServletRequest httpRequest = currentRequest();
+        String idempotencyKey = httpRequest == null ? null : httpRequest.getHeader(HEADER);
+        if (!StringUtils.hasText(idempotencyKey)) {
+            return joinPoint.proceed();
+        }
+
+        // 같은 키라도 엔드포인트가 다르면 다른 요청으로 본다
+        String key = httpRequest.getRequestURI() + ":" + idempotencyKey;
+        String fingerprint = DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(request));
+
+        InFlight mine = new InFlight(fingerprint, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            validateFingerprint(running.fingerprint(), fingerprint);
+            coalescedCounter.increment();
+            return await(running.result());
+        }
+
+        Object result;
+        try {
+            result = executeOnce(joinPoint, key, fingerprint);
+        } catch (Throwable t) {
+            mine.result().completeExceptionally(t);
+            inFlight.remove(key, mine);
+            throw t;
+        }
+        mine.result().complete(result);
+        if (result instanceof CompletionStage<?> stage) {
+            // 거래가 끝날 때까지 같은 노드의 재요청은 같은 future 를 받는다
+            stage.whenComplete((value, e) -> inFlight.remove(key, mine));
+        } else {
+            inFlight.remove(key, mine);
+        }
+        return result;
+    }
+
+    private Object executeOnce(ProceedingJoinPoint joinPoint, String key, String fingerprint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        boolean async = CompletionStage.class.isAssignableFrom(method.getReturnType());
+        // 비동기 응답은 future 가 아니라 그 안의 값을 저장하고 읽는다
+        Class<?> responseType = async
+            ? ResolvableType.forMethodReturnType(method).as(CompletionStage.class).resolveGeneric(0)
+            : method.getReturnType();
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+
+        while (true) {
+            IdempotentResponse existing;
+            try {
+                existing = idempotencyStore.begin(key, fingerprint);
+            } catch (RuntimeException e) {
+                unavailableCounter.increment();
+                if (fallback == IdempotencyFallback.REJECT) {
+                    log.error("Idempotency store unavailable, rejecting key : {}", key, e);
+                    throw new AccountException(ErrorCode.IDEMPOTENCY_STORE_UNAVAILABLE);
+                }
+                // PROCEED: 키 없이 들어온 요청처럼 처리한다 (같은 노드 중복은 위에서 막힌다)
+                log.error("Idempotency store unavailable, proceeding without it", e);
+                return joinPoint.proceed();
+            }
+
+            if (existing == null) {
+                return proceedAndStore(joinPoint, key, fingerprint);
+            }
+
+            validateFingerprint(existing.fingerprint(), fingerprint);
+            if (!existing.isPending()) {
+                replayedCounter.increment();
+                Object body = idempotencyStore.readBody(existing, responseType);
+                return async ? CompletableFuture.completedFuture(body) : body;
+            }
+
+            // 다른 노드가 처리 중 - 응답이 저장되거나 PENDING 이 지워질 때까지 기다린다
+            if (System.nanoTime() >= deadline) {
+                throw new AccountException(ErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS);
+            }
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        }
+    }
+
+    private Object proceedAndStore(ProceedingJoinPoint joinPoint, String key, String fingerprint) throws Throwable {
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable t) {
+            idempotencyStore.abort(key);
+            throw t;
+        }
+
+        if (result instanceof CompletionStage<?> stage) {
+            // 거래가 끝나고 응답을 저장한 뒤에 완료되는 future 를 돌려준다
+            return stage.toCompletableFuture().handle((value, e) -> {
+                if (e != null) {
+                    idempotencyStore.abort(key);
+                    throw e instanceof CompletionException completionException
+                        ? completionException
+                        : new CompletionException(e);
+                }
+                store(key, fingerprint, value);
+                return value;
+            });
+        }
+        store(key, fingerprint, result);
+        return result;
+    }
+
+    private void store(String key, String fingerprint, Object result) {
+        executedCounter.increment();
+        try {
+            idempotencyStore.complete(key, fingerprint, result);
+        } catch (JsonProcessingException | RuntimeException e) {
+            // 거래는 이미 커밋됐으므로 응답은 그대로 돌려준다
+            // PENDING 이 풀리면 재시도가 다시 실행되므로 풀리지 않게 남겨 둔다
+            log.error("Idempotent response store failed for key : {}", key, e);
+            idempotencyStore.keepPending(key);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> result) throws Throwable {
+        try {
+            return result.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            throw new AccountException(ErrorCode.IDEMPOTENCY_KEY_IN_PROGRESS);
+        }
+    }
+
+    private static void validateFingerprint(String stored, String fingerprint) {
+        if (!Objects.equals(stored, fingerprint)) {
+            throw new AccountException(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+        }
+    }
+
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes
+            ? servletAttributes.getRequest()
+            : null;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("account.idempotency")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private record InFlight(String fingerprint, CompletableFuture<Object> result) {
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.account.service;
+
+import com.example.account.dto.IdempotentResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Idempotency-Key -> 응답 저장소 (Redis)
+ * 처음 요청이 PENDING 표시를 먼저 남기고, 끝나면 응답으로 덮어쓴다
+ * PENDING 은 pending-ttl 로 남겨 처리 중 노드가 죽어도 키가 영원히 막히지 않게 한다
+ * pending-ttl 은 보호된 호출이 끝날 수 있는 시간(락 최대 보유 시간)보다 길어야 한다
+ * Redis 호출은 락과 같은 circuit 을 거치고, OPEN 이면 바로 실패해 store-fallback 정책으로 처리된다
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+    private static final String REDIS_KEY_PREFIX = "IDEM:";
+
+    private final RedissonClient redissonClient;
+    private final ObjectMapper objectMapper;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final Duration ttl;
+    private final Duration pendingTtl;
+    private final int completeAttempts;
+
+    public IdempotencyStore(RedissonClient redissonClient,
+                            ObjectMapper objectMapper,
+                            @Qualifier("idempotencyCircuitBreaker") RedisCircuitBreaker circuitBreaker,
+                            @Value("${account.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${account.idempotency.pending-ttl:PT2M}") Duration pendingTtl,
+                            @Value("${account.idempotency.complete-attempts:3}") int completeAttempts,
+                            @Value("${account.lock.watchdog.max-hold-ms:60000}") long maxHoldMillis) {
+        // 거래가 끝나기 전에 PENDING 이 풀리면 재시도가 같은 거래를 한 번 더 실행한다
+        if (pendingTtl.toMillis() <= maxHoldMillis) {
+            throw new IllegalStateException("account.idempotency.pending-ttl (" + pendingTtl
+                + ") must be longer than account.lock.watchdog.max-hold-ms (" + maxHoldMillis + "ms)");
+        }
+        this.redissonClient = redissonClient;
+        this.objectMapper = objectMapper;
+        this.circuitBreaker = circuitBreaker;
+        this.ttl = ttl;
+        this.pendingTtl = pendingTtl;
+        this.completeAttempts = Math.max(1, completeAttempts);
+    }
+
+    /**
+     * 키가 비어 있으면 PENDING 을 남기고 null 을 돌려준다 (이 요청이 실행한다)
+     * 이미 있으면 저장된 값(PENDING 또는 응답)을 돌려준다
+     */
+    public IdempotentResponse begin(String key, String fingerprint) throws JsonProcessingException {
+        RBucket<String> bucket = bucket(key);
+        String pending = objectMapper.writeValueAsString(IdempotentResponse.pending(fingerprint));
+        if (circuitBreaker.call(() -> bucket.trySet(pending, pendingTtl.toMillis(), TimeUnit.MILLISECONDS))) {
+            return null;
+        }
+
+        IdempotentResponse existing = get(key);
+        // trySet 과 get 사이에 PENDING 이 지워졌으면 다시 시도한다
+        return existing != null ? existing : begin(key, fingerprint);
+    }
+
+    public IdempotentResponse get(String key) throws JsonProcessingException {
+        String json = circuitBreaker.call(() -> bucket(key).get());
+        return json == null ? null : objectMapper.readValue(json, IdempotentResponse.class);
+    }
+
+    // 거래는 이미 커밋된 뒤라 일시적인 Redis 오류는 몇 번 더 시도한다
+    public void complete(String key, String fingerprint, Object response) throws JsonProcessingException {
+        String body = objectMapper.writeValueAsString(response);
+        String value = objectMapper.writeValueAsString(new IdempotentResponse(fingerprint, body));
+        for (int attempt = 1; ; attempt++) {
+            try {
+                circuitBreaker.run(() -> bucket(key).set(value, ttl.toMillis(), TimeUnit.MILLISECONDS));
+                return;
+            } catch (RedisCircuitBreaker.CircuitOpenException e) {
+                // OPEN 이면 다시 시도해도 바로 실패한다
+                throw e;
+            } catch (RuntimeException e) {
+                if (attempt >= completeAttempts) {
+                    throw e;
+                }
+                log.warn("Idempotent response store failed for key : {}, attempt : {}", key, attempt, e);
+            }
+        }
+    }
+
+    /**
+     * 응답을 저장하지 못했을 때 PENDING 을 ttl 동안 남긴다
+     * 같은 키의 재시도는 다시 실행되지 않고 IDEMPOTENCY_KEY_IN_PROGRESS 로 실패한다
+     */
+    public void keepPending(String key) {
+        try {
+            circuitBreaker.call(() -> bucket(key).expire(ttl));
+        } catch (RuntimeException e) {
+            log.error("Idempotency key could not be kept, expires in {} : {}", pendingTtl, key, e);
+        }
+    }
+
+    // 실패한 요청은 저장하지 않고 PENDING 만 지워 재시도가 다시 실행되게 한다
+    public void abort(String key) {
+        try {
+            circuitBreaker.call(() -> bucket(key).delete());
+        } catch (RuntimeException e) {
+            log.error("Idempotency key release failed, expires in {}", pendingTtl, e);
+        }
+    }
+
+    public <T> T readBody(IdempotentResponse response, Class<T> type) throws JsonProcessingException {
+        return objectMapper.readValue(response.body(), type);
+    }
+
+    private RBucket<String> bucket(String key) {
+        return redissonClient.getBucket(REDIS_KEY_PREFIX + key, StringCodec.INSTANCE);
+    }
+}
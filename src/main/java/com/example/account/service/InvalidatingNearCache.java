@@ -0,0 +1,99 @@
+package com.example.account.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * 노드 로컬 Caffeine 캐시 + redis pub/sub 무효화
+ * 값이 바뀌면 바로 지우고, 커밋 전에 다른 요청이 읽어 채운 값이 남지 않도록 커밋 후에 한 번 더 지우면서 다른 노드에 알린다
+ * 메시지를 놓친 경우를 대비해 ttl 이 지나면 다시 읽는다
+ * (Redis circuit 이 OPEN 인 동안은 메시지를 보내지 않으므로 다른 노드는 ttl 까지 이전 값을 볼 수 있다)
+ */
+@Slf4j
+public class InvalidatingNearCache<K, V> {
+    private final String name;
+    private final Cache<K, V> localCache;
+    private final RTopic invalidationTopic;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final Function<String, K> keyParser;
+
+    /**
+     * @param name      메트릭(cache 태그)과 로그에 쓰는 이름
+     * @param topic     무효화 메시지를 주고받는 redis topic
+     * @param keyParser 메시지(문자열)를 캐시 키로 바꾼다
+     */
+    public InvalidatingNearCache(String name,
+                                 String topic,
+                                 Function<String, K> keyParser,
+                                 RedissonClient redissonClient,
+                                 RedisCircuitBreaker circuitBreaker,
+                                 MeterRegistry meterRegistry,
+                                 long maxSize,
+                                 Duration ttl) {
+        this.name = name;
+        this.keyParser = keyParser;
+        this.invalidationTopic = redissonClient.getTopic(topic, StringCodec.INSTANCE);
+        this.circuitBreaker = circuitBreaker;
+        this.localCache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, name);
+    }
+
+    public void subscribe() {
+        try {
+            circuitBreaker.call(() -> invalidationTopic.addListener(String.class,
+                (channel, key) -> localCache.invalidate(keyParser.apply(key))));
+        } catch (RuntimeException e) {
+            log.error("{} invalidation subscribe failed", name, e);
+        }
+    }
+
+    // 같은 키를 동시에 읽어도 loader 는 한 번, loader 가 null 을 돌려주면 캐시하지 않는다
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        return localCache.get(key, loader);
+    }
+
+    public void evictAfterCommit(K key) {
+        localCache.invalidate(key);
+        afterCommit(() -> evict(key));
+    }
+
+    // 트랜잭션 밖이면 바로 실행한다
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void evict(K key) {
+        localCache.invalidate(key);
+        circuitBreaker.callAsync(() -> invalidationTopic.publishAsync(String.valueOf(key)))
+            .whenComplete((receivers, e) -> {
+                if (e != null) {
+                    log.error("{} invalidation publish failed", name, e);
+                }
+            });
+    }
+}
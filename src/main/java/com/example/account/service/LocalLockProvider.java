@@ -0,0 +1,36 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.exception.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JVM 안의 계좌 락 (LocalLockRegistry stripe)
+ * 다른 노드와는 배타적이지 않으므로 거래를 받는 노드가 하나일 때만 쓴다
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class LocalLockProvider implements LockProvider {
+    private final LocalLockRegistry localLockRegistry;
+
+    @Override
+    public void lock(String accountNumber, long waitMillis, long leaseMillis, String endpoint) {
+        try {
+            if (!localLockRegistry.tryLock(accountNumber, waitMillis, TimeUnit.MILLISECONDS)) {
+                log.error("======Local lock acquisition failed=====");
+                throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+    }
+
+    @Override
+    public void unlock(String accountNumber) {
+        localLockRegistry.unlock(accountNumber);
+    }
+}
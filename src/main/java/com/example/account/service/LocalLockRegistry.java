@@ -0,0 +1,91 @@
+package com.example.account.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 같은 노드 안의 요청끼리 먼저 줄을 세우는 계좌 락 (stripe 단위)
+ * Redis 락은 노드당 한 스레드만 경쟁하도록 한다
+ * stripe 는 여러 계좌가 공유하므로 어느 스레드가 어느 계좌를 잡았는지는 계좌 단위로 따로 기록한다
+ */
+@Component
+public class LocalLockRegistry {
+    private final ReentrantLock[] stripes;
+
+    // 계좌별 대기 스레드 수 - stripe 는 다른 계좌와 공유하므로 대기열 길이는 계좌 단위로 따로 센다
+    private final ConcurrentHashMap<String, Integer> waiters = new ConcurrentHashMap<>();
+
+    // 계좌별 소유 스레드와 재진입 횟수 - 같은 stripe 의 다른 계좌를 잡은 스레드가 이 계좌를 풀지 못하게 한다
+    private final ConcurrentHashMap<String, Hold> holds = new ConcurrentHashMap<>();
+
+    public LocalLockRegistry(@Value("${account.lock.local-stripes:256}") int stripeCount) {
+        // stripe 선택을 비트 연산으로 하기 위해 2의 제곱수로 맞춘다
+        int size = Integer.highestOneBit(Math.max(1, stripeCount));
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public boolean tryLock(String accountNumber, long waitTime, TimeUnit unit) throws InterruptedException {
+        ReentrantLock lock = stripeOf(accountNumber);
+        if (lock.tryLock()) {
+            hold(accountNumber);
+            return true;
+        }
+
+        waiters.merge(accountNumber, 1, Integer::sum);
+        try {
+            if (!lock.tryLock(waitTime, unit)) {
+                return false;
+            }
+            hold(accountNumber);
+            return true;
+        } finally {
+            // 0 이 되면 항목을 지워 계좌 수만큼 map 이 커지지 않게 한다
+            waiters.computeIfPresent(accountNumber, (key, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    // 이 계좌의 락을 기다리는 스레드 수 (대략적인 값)
+    public int getQueueLength(String accountNumber) {
+        return waiters.getOrDefault(accountNumber, 0);
+    }
+
+    // 이 계좌를 잡은 스레드가 아니면 아무것도 하지 않는다 (같은 stripe 를 잡고 있어도 마찬가지)
+    public void unlock(String accountNumber) {
+        Hold hold = holds.get(accountNumber);
+        if (hold == null || hold.owner() != Thread.currentThread()) {
+            return;
+        }
+        holds.computeIfPresent(accountNumber, (key, current) -> current.count() > 1 ? current.exit() : null);
+        stripeOf(accountNumber).unlock();
+    }
+
+    // stripe 를 잡은 상태에서만 부르므로 다른 스레드가 같은 계좌의 항목을 동시에 바꾸지 않는다
+    private void hold(String accountNumber) {
+        holds.compute(accountNumber, (key, current) -> current == null
+            ? new Hold(Thread.currentThread(), 1)
+            : current.enter());
+    }
+
+    private ReentrantLock stripeOf(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        hash ^= (hash >>> 16);
+        return stripes[hash & (stripes.length - 1)];
+    }
+
+    private record Hold(Thread owner, int count) {
+        private Hold enter() {
+            return new Hold(owner, count + 1);
+        }
+
+        private Hold exit() {
+            return new Hold(owner, count - 1);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.account.service;
 
+import com.example.account.aop.AccountLock;
 import com.example.account.aop.AccountLockIIdInterface;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,24 +14,22 @@ import org.springframework.stereotype.Component;
 @Slf4j
 @RequiredArgsConstructor
 public class LockAopAspect {
-    private final LockService lockService;
+    private final AccountConcurrencyGuard accountConcurrencyGuard;
 
     //com.example.account.aop.AccountLock 어노테이션 달려있는 부분에서 동작하는 메서드
-    @Around("@annotation(com.example.account.aop.AccountLock) && args(request)")
+    @Around("@annotation(accountLock) && args(request)")
     public Object aroundMethod(
         ProceedingJoinPoint joinPoint,
+        AccountLock accountLock,
         AccountLockIIdInterface request
     ) throws Throwable {
-        // lock 취득 시도
-        lockService.lock(request.getAccountNumber());
-
-        try{
-            return joinPoint.proceed();
-
-        }finally {
-
-            //lock 해제
-            lockService.unlock(request.getAccountNumber());
-        }
+        // concurrency-mode 에 따라 락/대기열/재시도로 보호 (대기/lease 시간은 엔드포인트의 @AccountLock 설정)
+        return accountConcurrencyGuard.execute(
+            request.getAccountNumber(),
+            accountLock.tryLockTime(),
+            accountLock.leaseTime(),
+            joinPoint.getSignature().toShortString(),
+            joinPoint::proceed
+        );
     }
 }
@@ -0,0 +1,46 @@
+package com.example.account.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * 계좌 락 구현 - account.lock.provider 로 배포 환경에 맞는 구현을 고른다
+ * lock 과 unlock 은 같은 스레드에서 짝을 맞춰 호출한다
+ */
+public interface LockProvider {
+
+    /**
+     * @param waitMillis  락을 기다리는 최대 시간
+     * @param leaseMillis 락을 잡고 있을 수 있는 최대 시간 (만료 개념이 없는 구현은 무시)
+     * @param endpoint    메트릭 태그
+     */
+    void lock(String accountNumber, long waitMillis, long leaseMillis, String endpoint);
+
+    void unlock(String accountNumber);
+
+    default void lock(String accountNumber) {
+        lock(accountNumber, LockService.DEFAULT_WAIT_MILLIS, LockService.DEFAULT_LEASE_MILLIS, "default");
+    }
+
+    /**
+     * 락을 잡고 action 을 executor 에서 실행한 뒤 해제한다 (비동기 경로)
+     * 기본 구현은 락이 스레드에 묶이므로 잡기/실행/해제를 executor 의 한 스레드에서 하고, 락을 기다리는 동안 그 스레드를 쓴다
+     */
+    default <T> CompletableFuture<T> executeAsync(String accountNumber, long waitMillis, long leaseMillis, String endpoint,
+                                                  Supplier<T> action, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            lock(accountNumber, waitMillis, leaseMillis, endpoint);
+            try {
+                return action.get();
+            } finally {
+                unlock(accountNumber);
+            }
+        }, executor);
+    }
+
+    // 락이 트랜잭션을 열고 보호되는 작업이 거기에 참여하면 true - 여러 작업을 한 락으로 묶으면 한 작업의 실패가 모두를 롤백한다
+    default boolean isTransactional() {
+        return false;
+    }
+}
@@ -2,44 +2,337 @@ package com.example.account.service;
 
 import com.example.account.exception.AccountException;
 import com.example.account.exception.ErrorCode;
-import lombok.RequiredArgsConstructor;
+import com.example.account.type.RedisLockFallback;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class LockService {
+    public static final long DEFAULT_WAIT_MILLIS = 1000L;
+    public static final long DEFAULT_LEASE_MILLIS = 15000L;
+    private static final String DEFAULT_ENDPOINT = "default";
+
     private final RedissonClient redissonClient;
+    private final LocalLockRegistry localLockRegistry;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final RedisLockFallback fallback;
+    private final MeterRegistry meterRegistry;
+    private final ScheduledExecutorService holdLimiter;
+    private final long minWaitMillis;
+    private final long maxHoldMillis;
+
+    // 이 노드가 잡고 있는 계좌 락 - 로컬 락 때문에 계좌당 한 스레드만 들어 있다
+    private final ConcurrentHashMap<String, HeldLock> heldLocks = new ConcurrentHashMap<>();
+
+    // 비동기 락 소유자 ID - 실제 스레드 ID(양수)와 겹치지 않도록 음수로 발급
+    private final AtomicLong asyncOwnerSequence = new AtomicLong();
+
+    // 락을 잡고 풀 때마다 builder 로 찾지 않도록 엔드포인트(/결과)별 meter 를 한 번만 등록해 둔다
+    private final ConcurrentHashMap<WaitKey, Timer> waitTimers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Timer> holdTimers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counter> leaseExpiredCounters = new ConcurrentHashMap<>();
+    private final Counter fallbackCounter;
+
+    public LockService(RedissonClient redissonClient,
+                       LocalLockRegistry localLockRegistry,
+                       @Qualifier("lockCircuitBreaker") RedisCircuitBreaker circuitBreaker,
+                       @Value("${account.lock.redis.fallback:REJECT}") RedisLockFallback fallback,
+                       MeterRegistry meterRegistry,
+                       BackgroundThreads backgroundThreads,
+                       @Value("${account.lock.adaptive.min-wait-ms:50}") long minWaitMillis,
+                       @Value("${account.lock.watchdog.max-hold-ms:60000}") long maxHoldMillis) {
+        this.redissonClient = redissonClient;
+        this.localLockRegistry = localLockRegistry;
+        this.circuitBreaker = circuitBreaker;
+        this.fallback = fallback;
+        this.meterRegistry = meterRegistry;
+        this.minWaitMillis = minWaitMillis;
+        this.maxHoldMillis = maxHoldMillis;
+        this.holdLimiter = Executors.newSingleThreadScheduledExecutor(backgroundThreads.factory("lock-hold-limit-"));
+        this.fallbackCounter = Counter.builder("account.lock.redis.fallback")
+            .description("Redis 락 대신 fallback 정책으로 처리한 횟수")
+            .tag("policy", fallback.name())
+            .register(meterRegistry);
+    }
 
     public void lock(String accountNumber) {
+        lock(accountNumber, DEFAULT_WAIT_MILLIS, DEFAULT_LEASE_MILLIS, DEFAULT_ENDPOINT);
+    }
+
+    /**
+     * @param waitMillis  락을 기다리는 최대 시간 (대기자가 많으면 줄어든다)
+     * @param leaseMillis 락을 잡고 있을 수 있는 최대 시간 (max-hold-ms 를 넘지 않는다)
+     *                    그 전까지는 Redisson watchdog 이 작업이 끝날 때까지 lease 를 연장한다
+     * @param endpoint    메트릭 태그
+     */
+    public void lock(String accountNumber, long waitMillis, long leaseMillis, String endpoint) {
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + TimeUnit.MILLISECONDS.toNanos(adaptiveWait(accountNumber, waitMillis));
+
+        // 같은 노드의 요청은 로컬 락에서 먼저 대기 -> 노드당 한 스레드만 Redis 락을 경쟁
+        lockLocal(accountNumber, deadline, endpoint, startedAt);
+
         RLock lock = redissonClient.getLock(getLockKey(accountNumber));
         log.debug("Trying lock for accountNumber : {}", accountNumber);
 
+        boolean redisLocked;
         try {
-            boolean isLock = lock.tryLock(1, 15, TimeUnit.SECONDS);
-            if (!isLock) {
-                log.error("======Lock acquisition failed=====");
-                throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+            redisLocked = tryLockRedis(lock, deadline, endpoint, startedAt);
+            if (!redisLocked) {
+                degrade(accountNumber);
             }
         } catch (AccountException e) {
+            localLockRegistry.unlock(accountNumber);
             throw e;
-        } catch (Exception e) {
-            log.error("Redis lock failed");
         }
 
+        recordWait(endpoint, "acquired", startedAt);
+        HeldLock held = new HeldLock(lock, endpoint, Thread.currentThread().getId(), System.nanoTime(), redisLocked);
+        if (redisLocked) {
+            long maxHold = Math.min(leaseMillis, maxHoldMillis);
+            held.release = holdLimiter.schedule(
+                () -> releaseOverdue(accountNumber, held, maxHold), maxHold, TimeUnit.MILLISECONDS);
+        }
+        heldLocks.put(accountNumber, held);
     }
 
     public void unlock(String accountNumber) {
         log.debug("unLock for accountNumber : {}", accountNumber);
-        redissonClient.getLock(getLockKey(accountNumber)).unlock();
+        HeldLock held = heldLocks.remove(accountNumber);
+        try {
+            if (held == null) {
+                // 이 노드가 잡은 락이 아니면 Redis 락을 건드리지 않는다
+                log.error("======Unlock without lock for accountNumber : {}=====", accountNumber);
+                return;
+            }
+            held.cancelRelease();
+            holdTimer(held.endpoint).record(System.nanoTime() - held.acquiredAt, TimeUnit.NANOSECONDS);
+            if (held.redisLocked) {
+                held.lock.unlock();
+            }
+        } catch (IllegalMonitorStateException e) {
+            // lease 가 먼저 끝나 다른 요청이 락을 가져갔을 수 있다
+            log.error("======Lock lease expired before unlock for accountNumber : {}=====", accountNumber);
+            held.markExpired(this);
+        } catch (RuntimeException e) {
+            // 해제하지 못한 Redis 락은 lease 가 끝나면 풀린다
+            log.error("Redis unlock failed for accountNumber : {}", accountNumber, e);
+            circuitBreaker.onFailure();
+        } finally {
+            localLockRegistry.unlock(accountNumber);
+        }
+    }
+
+    /**
+     * 스레드를 붙잡지 않고 Redis 락을 기다린다, 락을 얻으면 소유자 ID 로 완료된다
+     * 소유자가 스레드가 아니라 요청이므로 다른 스레드에서 이어서 처리해도 같은 ID 로 해제할 수 있다
+     * (로컬 락은 스레드 기준이라 비동기 경로에서는 쓰지 않는다)
+     */
+    public CompletableFuture<Long> lockAsync(String accountNumber) {
+        return lockAsync(accountNumber, DEFAULT_WAIT_MILLIS, DEFAULT_LEASE_MILLIS);
+    }
+
+    public CompletableFuture<Long> lockAsync(String accountNumber, long waitMillis, long leaseMillis) {
+        // 비동기 경로에는 대신 잡을 로컬 락이 없으므로 Redis 를 쓸 수 없으면 항상 거절한다
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return CompletableFuture.failedFuture(new AccountException(ErrorCode.ACCOUNT_LOCK_UNAVAILABLE));
+        }
+        long ownerId = asyncOwnerSequence.decrementAndGet();
+        log.debug("Trying async lock for accountNumber : {}", accountNumber);
+
+        return redissonClient.getLock(getLockKey(accountNumber))
+            .tryLockAsync(waitMillis, Math.min(leaseMillis, maxHoldMillis), TimeUnit.MILLISECONDS, ownerId)
+            .toCompletableFuture()
+            .handle((isLock, e) -> {
+                if (e != null) {
+                    log.error("Redis lock failed", e);
+                    circuitBreaker.onFailure();
+                    throw new AccountException(ErrorCode.ACCOUNT_LOCK_UNAVAILABLE);
+                }
+                circuitBreaker.onSuccess();
+                if (!isLock) {
+                    log.error("======Lock acquisition failed=====");
+                    throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+                }
+                return ownerId;
+            });
+    }
+
+    public CompletableFuture<Void> unlockAsync(String accountNumber, long ownerId) {
+        log.debug("unLock async for accountNumber : {}", accountNumber);
+        return redissonClient.getLock(getLockKey(accountNumber))
+            .unlockAsync(ownerId)
+            .toCompletableFuture();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        holdLimiter.shutdownNow();
+    }
+
+    private void lockLocal(String accountNumber, long deadline, String endpoint, long startedAt) {
+        try {
+            if (!localLockRegistry.tryLock(accountNumber, remainingMillis(deadline), TimeUnit.MILLISECONDS)) {
+                log.error("======Local lock acquisition failed=====");
+                recordWait(endpoint, "timeout", startedAt);
+                throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+    }
+
+    /**
+     * true: Redis 락 획득, false: Redis 를 쓸 수 없음 (circuit OPEN 또는 호출 실패)
+     * Redis 가 응답했는데 락을 얻지 못한 경우는 예외로 실패시킨다
+     */
+    private boolean tryLockRedis(RLock lock, long deadline, String endpoint, long startedAt) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return false;
+        }
+
+        boolean isLock;
+        try {
+            // lease 를 -1 로 주면 Redisson watchdog 이 해제될 때까지 lockWatchdogTimeout 단위로 연장한다
+            isLock = lock.tryLock(remainingMillis(deadline), -1, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            circuitBreaker.releasePermission();
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        } catch (RuntimeException e) {
+            log.error("Redis lock failed", e);
+            circuitBreaker.onFailure();
+            return false;
+        }
+
+        circuitBreaker.onSuccess();
+        if (!isLock) {
+            log.error("======Lock acquisition failed=====");
+            recordWait(endpoint, "timeout", startedAt);
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+        return true;
+    }
+
+    // Redis 없이 진행할지 결정 - 락 없이 실행되는 경우는 없다
+    private void degrade(String accountNumber) {
+        fallbackCounter.increment();
+        if (fallback == RedisLockFallback.REJECT) {
+            log.error("======Redis lock unavailable, rejecting accountNumber : {}=====", accountNumber);
+            throw new AccountException(ErrorCode.ACCOUNT_LOCK_UNAVAILABLE);
+        }
+        // LOCAL: 이미 잡은 로컬 락으로만 보호 (이 노드만 거래를 받는 경우에만 설정)
+        log.warn("Redis lock unavailable, guarded by local lock only for accountNumber : {}", accountNumber);
+    }
+
+    // 앞에 기다리는 요청이 많으면 차례가 와도 어차피 늦으므로 빨리 실패시킨다
+    private long adaptiveWait(String accountNumber, long waitMillis) {
+        int queued = localLockRegistry.getQueueLength(accountNumber);
+        return Math.max(Math.min(minWaitMillis, waitMillis), waitMillis / (1 + queued));
+    }
+
+    /**
+     * 멈춘 작업이 락을 영원히 잡지 않도록 최대 보유 시간이 지나면 락을 놓는다
+     * unlockAsync(threadId) 는 소유자 확인과 해제를 Lua 스크립트 하나로 처리하고 watchdog 연장도 멈추므로
+     * 그 사이 다른 요청이 가져간 락을 건드리지 않는다
+     */
+    private void releaseOverdue(String accountNumber, HeldLock held, long maxHold) {
+        log.error("======Lock held longer than {}ms for accountNumber : {}=====", maxHold, accountNumber);
+        held.markExpired(this);
+        held.lock.unlockAsync(held.threadId)
+            .toCompletableFuture()
+            .whenComplete((ignored, e) -> {
+                if (e != null) {
+                    log.error("Overdue lock release failed for accountNumber : {}", accountNumber, e);
+                }
+            });
+    }
+
+    private void recordWait(String endpoint, String result, long startedAt) {
+        waitTimers.computeIfAbsent(new WaitKey(endpoint, result), key -> Timer.builder("account.lock.wait")
+                .description("계좌 락을 얻기까지 기다린 시간")
+                .tag("endpoint", key.endpoint())
+                .tag("result", key.result())
+                .publishPercentileHistogram()
+                .register(meterRegistry))
+            .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer holdTimer(String endpoint) {
+        return holdTimers.computeIfAbsent(endpoint, key -> Timer.builder("account.lock.hold")
+            .description("계좌 락을 잡고 있던 시간")
+            .tag("endpoint", key)
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+    }
+
+    private void countLeaseExpired(String endpoint) {
+        leaseExpiredCounters.computeIfAbsent(endpoint, key -> Counter.builder("account.lock.lease.expired")
+                .description("작업이 끝나기 전에 lease 가 만료된 횟수")
+                .tag("endpoint", key)
+                .register(meterRegistry))
+            .increment();
+    }
+
+    private static long remainingMillis(long deadline) {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
     }
 
     private static String getLockKey(String accountNumber) {
         return "ACLK" + accountNumber;
     }
+
+    private record WaitKey(String endpoint, String result) {
+    }
+
+    private static class HeldLock {
+        private final RLock lock;
+        private final String endpoint;
+        private final long threadId;
+        private final long acquiredAt;
+        private final boolean redisLocked;
+        private final AtomicBoolean expired = new AtomicBoolean();
+        private volatile ScheduledFuture<?> release;
+
+        private HeldLock(RLock lock, String endpoint, long threadId, long acquiredAt, boolean redisLocked) {
+            this.lock = lock;
+            this.endpoint = endpoint;
+            this.threadId = threadId;
+            this.acquiredAt = acquiredAt;
+            this.redisLocked = redisLocked;
+        }
+
+        private void cancelRelease() {
+            ScheduledFuture<?> current = release;
+            if (current != null) {
+                current.cancel(false);
+            }
+        }
+
+        // 최대 보유 시간 해제와 unlock 이 같은 만료를 두 번 세지 않도록 한 번만 기록
+        private void markExpired(LockService lockService) {
+            if (expired.compareAndSet(false, true)) {
+                lockService.countLeaseExpired(endpoint);
+            }
+        }
+    }
 }
@@ -0,0 +1,156 @@
+package com.example.account.service;
+
+import com.example.account.type.CircuitState;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Redis 호출용 circuit breaker - 용도(락, Idempotency 저장소, 캐시/무효화 메시지)마다 따로 만든다 (RedisCircuitBreakerConfig)
+ * - CLOSED: 연속 실패가 failure-threshold 에 닿으면 OPEN
+ * - OPEN: open-duration 동안 Redis 를 호출하지 않는다 (타임아웃을 기다리며 요청이 쌓이지 않게)
+ * - HALF_OPEN: 한 요청만 Redis 를 시험해 보고, 성공하면 CLOSED 실패하면 다시 OPEN
+ */
+@Slf4j
+public class RedisCircuitBreaker {
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+
+    private final AtomicReference<CircuitState> state = new AtomicReference<>(CircuitState.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAt;
+
+    /**
+     * @param name 용도 (로그와 메트릭 name 태그)
+     */
+    public RedisCircuitBreaker(String name,
+                               MeterRegistry meterRegistry,
+                               int failureThreshold,
+                               Duration openDuration) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+
+        Gauge.builder("account.redis.circuit.state", state, current -> current.get().ordinal())
+            .description("Redis circuit 상태 (0: CLOSED, 1: OPEN, 2: HALF_OPEN)")
+            .tag("name", name)
+            .register(meterRegistry);
+    }
+
+    // Redis 를 호출해도 되는지 - OPEN 기간이 지나면 한 요청만 시험 호출을 허용한다
+    public boolean tryAcquirePermission() {
+        CircuitState current = state.get();
+        if (current == CircuitState.CLOSED) {
+            return true;
+        }
+        if (current == CircuitState.OPEN
+            && System.nanoTime() - openedAt >= openDurationNanos
+            && state.compareAndSet(CircuitState.OPEN, CircuitState.HALF_OPEN)) {
+            log.info("Redis {} circuit half-open, probing", name);
+            return true;
+        }
+        return false;
+    }
+
+    // 시험 호출(HALF_OPEN)의 성공으로만 닫는다 - OPEN 전에 시작한 느린 호출의 성공이 OPEN 을 닫지 않게 한다
+    public void onSuccess() {
+        if (state.compareAndSet(CircuitState.HALF_OPEN, CircuitState.CLOSED)) {
+            consecutiveFailures.set(0);
+            log.info("Redis {} circuit closed", name);
+        } else if (state.get() == CircuitState.CLOSED) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    public void onFailure() {
+        if (state.get() == CircuitState.HALF_OPEN
+            || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open();
+        }
+    }
+
+    // 시험 호출이 Redis 응답과 무관하게 끝났으면(인터럽트 등) 다음 요청이 다시 시험하도록 돌려놓는다
+    public void releasePermission() {
+        state.compareAndSet(CircuitState.HALF_OPEN, CircuitState.OPEN);
+    }
+
+    /**
+     * Redis 호출을 circuit 을 거쳐 실행한다
+     * OPEN 이면 호출하지 않고 CircuitOpenException 으로 바로 실패한다
+     */
+    public <T> T call(Supplier<T> action) {
+        if (!tryAcquirePermission()) {
+            throw new CircuitOpenException();
+        }
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            onFailure();
+            throw e;
+        } catch (Throwable t) {
+            // Error 등 Redis 응답과 무관하게 끝났으면 HALF_OPEN 에 멈추지 않도록 시험 권한만 돌려놓는다
+            releasePermission();
+            throw t;
+        }
+        onSuccess();
+        return result;
+    }
+
+    public void run(Runnable action) {
+        call(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // 비동기 호출은 완료될 때 결과를 반영한다
+    public <T> CompletableFuture<T> callAsync(Supplier<? extends CompletionStage<T>> action) {
+        if (!tryAcquirePermission()) {
+            return CompletableFuture.failedFuture(new CircuitOpenException());
+        }
+        CompletableFuture<T> future;
+        try {
+            future = action.get().toCompletableFuture();
+        } catch (RuntimeException e) {
+            onFailure();
+            return CompletableFuture.failedFuture(e);
+        } catch (Throwable t) {
+            releasePermission();
+            throw t;
+        }
+        return future.whenComplete((result, e) -> {
+            if (e != null) {
+                onFailure();
+            } else {
+                onSuccess();
+            }
+        });
+    }
+
+    public CircuitState getState() {
+        return state.get();
+    }
+
+    private void open() {
+        openedAt = System.nanoTime();
+        if (state.getAndSet(CircuitState.OPEN) != CircuitState.OPEN) {
+            log.error("======Redis {} circuit opened=====", name);
+        }
+    }
+
+    // 정상적인 빠른 실패라 stack trace 는 남기지 않는다
+    public static class CircuitOpenException extends RuntimeException {
+        public CircuitOpenException() {
+            super("Redis circuit is open", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.account.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Redisson 분산 락 - 기존 LockService 를 그대로 사용한다
+ * 비동기 경로는 Redisson 비동기 API 로 기다리고, 락을 얻은 뒤에만 작업 스레드에서 처리한다
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RedisLockProvider implements LockProvider {
+    private final LockService lockService;
+
+    @Override
+    public void lock(String accountNumber, long waitMillis, long leaseMillis, String endpoint) {
+        lockService.lock(accountNumber, waitMillis, leaseMillis, endpoint);
+    }
+
+    @Override
+    public void unlock(String accountNumber) {
+        lockService.unlock(accountNumber);
+    }
+
+    // 락 소유자는 요청마다 발급한 ID 라서 어느 스레드에서 끝나도 같은 ID 로 해제한다
+    @Override
+    public <T> CompletableFuture<T> executeAsync(String accountNumber, long waitMillis, long leaseMillis, String endpoint,
+                                                 Supplier<T> action, Executor executor) {
+        return lockService.lockAsync(accountNumber, waitMillis, leaseMillis)
+            .thenCompose(ownerId -> CompletableFuture.supplyAsync(action, executor)
+                // 성공/실패와 관계없이 해제가 끝난 뒤에 결과를 넘긴다
+                .handle((result, error) -> lockService.unlockAsync(accountNumber, ownerId)
+                    .handle((ignored, unlockError) -> {
+                        if (unlockError != null) {
+                            log.error("Async unlock failed for accountNumber : {}", accountNumber, unlockError);
+                        }
+                        if (error != null) {
+                            throw error instanceof CompletionException completionException
+                                ? completionException
+                                : new CompletionException(error);
+                        }
+                        return result;
+                    }))
+                .thenCompose(unlocked -> unlocked));
+    }
+}
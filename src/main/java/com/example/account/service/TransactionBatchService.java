@@ -0,0 +1,99 @@
+package com.example.account.service;
+
+import com.example.account.dto.UseBalance;
+import com.example.account.dto.UseBalanceBatch;
+import com.example.account.exception.AccountException;
+import com.example.account.exception.ErrorCode;
+import com.example.account.type.TransactionConcurrencyMode;
+import com.example.account.type.TransactionType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 잔액 사용 일괄 처리
+ * 요청을 계좌별로 묶어 계좌마다 락을 한 번만 잡고, 그 안에서 요청 순서대로 처리한다
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionBatchService {
+    private final TransactionService transactionService;
+    private final LockProvider lockProvider;
+    private final FailedTransactionRecorder failedTransactionRecorder;
+
+    @Value("${account.transaction.concurrency-mode:LOCK}")
+    private TransactionConcurrencyMode concurrencyMode = TransactionConcurrencyMode.LOCK;
+
+    public List<UseBalanceBatch.Result> useBalances(List<UseBalance.Request> requests) {
+        // 계좌번호 -> 요청 위치(index) 목록, 처음 나온 계좌 순서를 유지한다
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            groups.computeIfAbsent(requests.get(i).getAccountNumber(), key -> new ArrayList<>()).add(i);
+        }
+
+        UseBalanceBatch.Result[] results = new UseBalanceBatch.Result[requests.size()];
+        groups.forEach((accountNumber, indexes) -> {
+            List<UseBalance.Request> group = indexes.stream().map(requests::get).toList();
+            List<UseBalanceBatch.Result> groupResults = useBalancesInLock(accountNumber, group);
+            for (int i = 0; i < indexes.size(); i++) {
+                UseBalanceBatch.Result result = groupResults.get(i);
+                result.setIndex(indexes.get(i));
+                results[indexes.get(i)] = result;
+            }
+        });
+        return Arrays.asList(results);
+    }
+
+    private List<UseBalanceBatch.Result> useBalancesInLock(String accountNumber, List<UseBalance.Request> group) {
+        // ATOMIC 모드는 조건부 UPDATE 로 처리하므로 락이 필요 없다
+        boolean locking = concurrencyMode != TransactionConcurrencyMode.ATOMIC;
+        if (locking) {
+            try {
+                lockProvider.lock(accountNumber);
+            } catch (AccountException e) {
+                return failAll(accountNumber, group, e.getErrorCode());
+            }
+        }
+
+        try {
+            List<UseBalanceBatch.Result> results = transactionService.useBalances(accountNumber, group);
+            recordFailures(results);
+            return results;
+        } catch (OptimisticLockingFailureException e) {
+            log.error("Batch use balance conflicted for accountNumber : {}", accountNumber);
+            return failAll(accountNumber, group, ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        } catch (RuntimeException e) {
+            log.error("Batch use balance failed for accountNumber : {}", accountNumber, e);
+            return failAll(accountNumber, group, ErrorCode.INTERNAL_SERVER_ERROR);
+        } finally {
+            if (locking) {
+                lockProvider.unlock(accountNumber);
+            }
+        }
+    }
+
+    // 단건 API 와 같이 검증에 실패한 거래는 실패 거래로 남긴다
+    private void recordFailures(List<UseBalanceBatch.Result> results) {
+        results.stream()
+            .filter(result -> result.getErrorCode() != null)
+            .forEach(result -> failedTransactionRecorder.record(
+                result.getAccountNumber(), result.getAmount(), TransactionType.USE));
+    }
+
+    private static List<UseBalanceBatch.Result> failAll(String accountNumber,
+                                                        List<UseBalance.Request> group,
+                                                        ErrorCode errorCode) {
+        return group.stream()
+            .map(request -> UseBalanceBatch.Result.failure(accountNumber, request.getAmount(), errorCode))
+            .toList();
+    }
+}
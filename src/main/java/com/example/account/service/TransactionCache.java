@@ -0,0 +1,131 @@
+package com.example.account.service;
+
+import com.example.account.dto.CachedTransaction;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 거래 ID -> 거래 정보 캐시
+ * 거래는 저장된 뒤 바뀌지 않으므로 무효화 없이 크기 제한(W-TinyLFU)으로만 내보낸다
+ * redis 단계를 켜면 로컬에 없는 거래를 다른 노드가 채워둔 값에서 먼저 찾는다
+ * (Redis circuit 이 OPEN 이면 redis 단계를 건너뛴다)
+ */
+@Slf4j
+@Component
+public class TransactionCache {
+    private static final String REDIS_KEY_PREFIX = "TRX:";
+
+    private final Cache<String, CachedTransaction> localCache;
+    private final RedissonClient redissonClient;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final ObjectMapper objectMapper;
+    private final boolean redisEnabled;
+    private final Duration redisTtl;
+    private final Counter redisHitCounter;
+    private final Counter redisMissCounter;
+
+    public TransactionCache(MeterRegistry meterRegistry,
+                            RedissonClient redissonClient,
+                            @Qualifier("cacheCircuitBreaker") RedisCircuitBreaker circuitBreaker,
+                            ObjectMapper objectMapper,
+                            @Value("${account.transaction.cache.max-size:100000}") long maxSize,
+                            @Value("${account.transaction.cache.redis.enabled:false}") boolean redisEnabled,
+                            @Value("${account.transaction.cache.redis.ttl:PT24H}") Duration redisTtl) {
+        this.redissonClient = redissonClient;
+        this.circuitBreaker = circuitBreaker;
+        this.objectMapper = objectMapper;
+        this.redisEnabled = redisEnabled;
+        this.redisTtl = redisTtl;
+        this.localCache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .recordStats()
+            .build();
+
+        // cache.gets{result=hit|miss}, cache.evictions 등을 노출
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "transactions");
+        this.redisHitCounter = Counter.builder("account.transaction.cache.redis")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        this.redisMissCounter = Counter.builder("account.transaction.cache.redis")
+            .tag("result", "miss")
+            .register(meterRegistry);
+    }
+
+    public Optional<CachedTransaction> get(String transactionId) {
+        CachedTransaction cached = localCache.getIfPresent(transactionId);
+        if (cached != null || !redisEnabled) {
+            return Optional.ofNullable(cached);
+        }
+
+        cached = getFromRedis(transactionId);
+        if (cached != null) {
+            localCache.put(transactionId, cached);
+        }
+        return Optional.ofNullable(cached);
+    }
+
+    public void put(CachedTransaction transaction) {
+        localCache.put(transaction.transactionId(), transaction);
+        if (redisEnabled) {
+            putToRedis(transaction);
+        }
+    }
+
+    // 롤백된 거래가 캐시에 남지 않도록 커밋된 뒤에 채운다
+    public void putAfterCommit(CachedTransaction transaction) {
+        InvalidatingNearCache.afterCommit(() -> put(transaction));
+    }
+
+    // redis 장애는 캐시 미스로 보고 DB 조회로 넘어간다
+    private CachedTransaction getFromRedis(String transactionId) {
+        try {
+            String json = circuitBreaker.call(() -> bucket(transactionId).get());
+            if (json == null) {
+                redisMissCounter.increment();
+                return null;
+            }
+            redisHitCounter.increment();
+            return objectMapper.readValue(json, CachedTransaction.class);
+        } catch (Exception e) {
+            log.error("Transaction cache read failed", e);
+            return null;
+        }
+    }
+
+    private void putToRedis(CachedTransaction transaction) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(transaction);
+        } catch (JsonProcessingException e) {
+            log.error("Transaction cache write failed", e);
+            return;
+        }
+        circuitBreaker.callAsync(() -> bucket(transaction.transactionId())
+                .setAsync(json, redisTtl.toMillis(), TimeUnit.MILLISECONDS))
+            .whenComplete((ignored, e) -> {
+                if (e != null) {
+                    log.error("Transaction cache write failed", e);
+                }
+            });
+    }
+
+    private RBucket<String> bucket(String transactionId) {
+        return redissonClient.getBucket(REDIS_KEY_PREFIX + transactionId, StringCodec.INSTANCE);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.exception.ErrorCode;
+import com.example.account.repository.AccountRepository;
+import com.example.account.type.ExportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class TransactionExportService {
+    private static final String CSV_HEADER =
+        "transactionId,transactionType,transactionResultType,amount,balanceSnapshot,transactedAt";
+    private static final int FLUSH_INTERVAL = 500;
+
+    private final AccountRepository accountRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    // 커서가 DB 에서 한 번에 가져오는 행 수 - 크면 왕복이 줄고 작으면 드라이버 버퍼 메모리가 줄어든다
+    @Value("${account.transaction.export.fetch-size:500}")
+    private int fetchSize = 500;
+
+    public void validateAccount(String accountNumber) {
+        getAccount(accountNumber);
+    }
+
+    /**
+     * 계좌의 전체 거래를 커서로 한 건씩 읽어 바로 출력 스트림에 쓴다
+     * 쓴 엔티티는 바로 detach 해서 계좌 크기와 상관없이 메모리 사용량이 일정하다
+     */
+    @Transactional(readOnly = true)
+    public void export(String accountNumber, ExportFormat format, OutputStream outputStream) throws IOException {
+        Account account = getAccount(accountNumber);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<Transaction> transactions = streamByAccount(account)) {
+            Iterator<Transaction> iterator = transactions.iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                Transaction transaction = iterator.next();
+                writeRow(writer, format, TransactionDto.fromEntity(transaction));
+                entityManager.detach(transaction);
+
+                if (++count % FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    // fetch size 단위로 커서를 앞으로만 읽는다 (트랜잭션 안에서 사용 후 close)
+    private Stream<Transaction> streamByAccount(Account account) {
+        return entityManager.createQuery(
+                "select t from Transaction t where t.account = :account order by t.transactionAt, t.id",
+                Transaction.class)
+            .setParameter("account", account)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream();
+    }
+
+    private void writeRow(Writer writer, ExportFormat format, TransactionDto transactionDto) throws IOException {
+        if (format == ExportFormat.CSV) {
+            writer.write(String.join(",",
+                transactionDto.getTransactionId(),
+                String.valueOf(transactionDto.getTransactionType()),
+                String.valueOf(transactionDto.getTransactionResultType()),
+                String.valueOf(transactionDto.getAmount()),
+                String.valueOf(transactionDto.getBalanceSnapshot()),
+                String.valueOf(transactionDto.getTransactedAt())));
+        } else {
+            writer.write(objectMapper.writeValueAsString(transactionDto));
+        }
+        writer.write('\n');
+    }
+
+    private Account getAccount(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber)
+            .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+    }
+}
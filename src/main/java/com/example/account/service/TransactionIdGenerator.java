@@ -0,0 +1,5 @@
+package com.example.account.service;
+
+public interface TransactionIdGenerator {
+    String nextId();
+}
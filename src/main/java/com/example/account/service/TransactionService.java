@@ -1,24 +1,44 @@
 package com.example.account.service;
 
 import com.example.account.domain.Account;
-import com.example.account.domain.AccountUser;
 import com.example.account.domain.Transaction;
+import com.example.account.domain.TransactionIdConverter;
+import com.example.account.dto.AccountOwnership;
+import com.example.account.dto.CachedTransaction;
+import com.example.account.dto.FailedTransaction;
 import com.example.account.dto.TransactionDto;
+import com.example.account.dto.TransactionHistoryDto;
+import com.example.account.dto.UseBalance;
+import com.example.account.dto.UseBalanceBatch;
 import com.example.account.exception.AccountException;
 import com.example.account.exception.ErrorCode;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
 import com.example.account.repository.TransactionRepository;
 import com.example.account.type.AccountStatus;
+import com.example.account.type.TransactionConcurrencyMode;
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.example.account.type.TransactionResultType.FAILED;
 import static com.example.account.type.TransactionResultType.SUCCESS;
@@ -29,99 +49,340 @@ public class TransactionService {
     private final TransactionRepository transactionRepository;
     private final AccountUserRepository accountUserRepository;
     private final AccountRepository accountRepository;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final TransactionCache transactionCache;
+    private final AccountOwnershipCache accountOwnershipCache;
+    private final UserAccountsCache userAccountsCache;
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    // 첫 페이지 커서 - 이보다 이전의 모든 거래
+    private static final LocalDateTime HISTORY_START_AT = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    @Value("${account.transaction.concurrency-mode:LOCK}")
+    private TransactionConcurrencyMode concurrencyMode = TransactionConcurrencyMode.LOCK;
 
     @Transactional
     public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
-        AccountUser accountUser = accountUserRepository.findById(userId)
-            .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+        AccountOwnership ownership = accountOwnershipCache.get(accountNumber)
+            .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+
+        validateOwnership(userId, ownership);
+        // 잔액이 바뀌므로 계좌 목록 캐시를 비운다
+        userAccountsCache.evictAfterCommit(ownership.ownerUserId());
+
+        // 조건부 UPDATE 한 번으로 차감 - 계좌/사용자를 읽지 않는다
+        if (concurrencyMode == TransactionConcurrencyMode.ATOMIC) {
+            Long balanceSnapshot = useBalanceAtomically(ownership.accountId(), amount);
+            return saveAndTransaction(amount, accountRepository.getReferenceById(ownership.accountId()),
+                accountNumber, balanceSnapshot, SUCCESS, TransactionType.USE).toDto();
+        }
+
         Account account = accountRepository.findByAccountNumber(accountNumber)
             .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
 
-        validateUseBalance(account, accountUser, amount);
+        validateUseBalance(account, amount);
 
         account.useBalance(amount);
 
-        return TransactionDto.fromEntity(saveAndTransaction(amount, account, SUCCESS, TransactionType.USE));
+        return saveAndTransaction(amount, account, SUCCESS, TransactionType.USE).toDto();
     }
 
+    /**
+     * 한 계좌에 대한 여러 건의 잔액 사용을 요청 순서대로 처리 (계좌 락은 호출하는 쪽에서 한 번 잡는다)
+     * 건별로 검증해서 실패한 건은 오류 코드만 남기고, 성공한 거래는 한 번에(배치 INSERT) 저장한다
+     * 결과는 요청과 같은 순서로 돌려준다
+     */
     @Transactional
-    public void saveFailedUseTransaction(String accountNumber, Long amount) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-            .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+    public List<UseBalanceBatch.Result> useBalances(String accountNumber, List<UseBalance.Request> requests) {
+        Optional<AccountOwnership> ownership = accountOwnershipCache.get(accountNumber);
+        boolean atomic = concurrencyMode == TransactionConcurrencyMode.ATOMIC;
+        Account account = null;
+        if (ownership.isPresent()) {
+            account = atomic
+                ? accountRepository.getReferenceById(ownership.get().accountId())
+                : accountRepository.findByAccountNumber(accountNumber).orElse(null);
+        }
+
+        UseBalanceBatch.Result[] results = new UseBalanceBatch.Result[requests.size()];
+        List<Transaction> transactions = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            UseBalance.Request request = requests.get(i);
+            try {
+                if (account == null) {
+                    throw new AccountException(ErrorCode.ACCOUNT_NOT_FOUND);
+                }
+                validateOwnership(request.getUserId(), ownership.get());
+
+                Long balanceSnapshot;
+                if (atomic) {
+                    balanceSnapshot = useBalanceAtomically(ownership.get().accountId(), request.getAmount());
+                } else {
+                    validateUseBalance(account, request.getAmount());
+                    account.useBalance(request.getAmount());
+                    balanceSnapshot = account.getBalance();
+                }
+
+                transactions.add(Transaction.builder()
+                    .transactionType(TransactionType.USE)
+                    .transactionResultType(SUCCESS)
+                    .account(account)
+                    .amount(request.getAmount())
+                    .balanceSnapshot(balanceSnapshot)
+                    .transactionId(transactionIdGenerator.nextId())
+                    .transactionAt(LocalDateTime.now())
+                    .build());
+                positions.add(i);
+            } catch (AccountException e) {
+                results[i] = UseBalanceBatch.Result.failure(accountNumber, request.getAmount(), e.getErrorCode());
+            }
+        }
 
-        saveAndTransaction(amount, account, FAILED, TransactionType.USE);
+        List<Transaction> saved = transactionRepository.saveAll(transactions);
+        for (int i = 0; i < saved.size(); i++) {
+            CachedTransaction cached = CachedTransaction.of(saved.get(i), accountNumber);
+            transactionCache.putAfterCommit(cached);
+            results[positions.get(i)] = UseBalanceBatch.Result.success(cached.toDto());
+        }
+        if (!saved.isEmpty()) {
+            userAccountsCache.evictAfterCommit(ownership.get().ownerUserId());
+        }
+
+        return Arrays.asList(results);
     }
 
     @Transactional
     public TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount) {
         // 거래 조회
-        Transaction transaction = transactionRepository.findByTransactionId(transactionId)
+        CachedTransaction transaction = findTransaction(transactionId)
             .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
 
         // 계좌 조회
-        Account account = accountRepository.findByAccountNumber(accountNumber)
+        AccountOwnership ownership = accountOwnershipCache.get(accountNumber)
             .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
 
-        validateCancelBalance(account, transaction, amount);
+        validateCancelBalance(ownership, transaction, amount);
+        userAccountsCache.evictAfterCommit(ownership.ownerUserId());
+
+        if (concurrencyMode == TransactionConcurrencyMode.ATOMIC) {
+            Long balanceSnapshot = cancelBalanceAtomically(ownership.accountId(), amount);
+            return saveAndTransaction(amount, accountRepository.getReferenceById(ownership.accountId()),
+                accountNumber, balanceSnapshot, SUCCESS, TransactionType.CANCEL).toDto();
+        }
+
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+            .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
 
         account.cancelBalance(amount);
 
-        return TransactionDto.fromEntity(
-            saveAndTransaction(amount, account, SUCCESS, TransactionType.CANCEL));
+        return saveAndTransaction(amount, account, SUCCESS, TransactionType.CANCEL).toDto();
     }
 
+    /**
+     * 실패 거래를 모아서 저장 (FailedTransactionRecorder 의 백그라운드 작업자가 호출)
+     * 계좌는 한 번에 조회하고, 없는 계좌의 실패 거래는 남길 곳이 없으므로 건너뛴다
+     * 이미 저장된 거래 ID 는 건너뛰어 임시 파일을 다시 읽어도 중복 저장되지 않는다
+     * 잔액 스냅샷이 없으면 저장 시점의 잔액을 쓴다 (그 사이의 거래가 반영된 근사값)
+     */
     @Transactional
-    public void saveFailedCancelTransaction(String accountNumber, Long amount) {
+    public void saveFailedTransactions(List<FailedTransaction> failedTransactions) {
+        Map<String, Account> accounts = accountRepository.findByAccountNumberIn(
+                failedTransactions.stream()
+                    .map(FailedTransaction::accountNumber)
+                    .collect(Collectors.toSet()))
+            .stream()
+            .collect(Collectors.toMap(Account::getAccountNumber, Function.identity()));
+        Set<String> savedTransactionIds = new HashSet<>(transactionRepository.findTransactionIdsIn(
+            failedTransactions.stream()
+                .map(FailedTransaction::transactionId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet())));
+
+        List<Transaction> transactions = new ArrayList<>();
+        for (FailedTransaction failedTransaction : failedTransactions) {
+            Account account = accounts.get(failedTransaction.accountNumber());
+            if (account == null || !isNewTransactionId(failedTransaction.transactionId(), savedTransactionIds)) {
+                continue;
+            }
+            transactions.add(Transaction.builder()
+                .transactionType(failedTransaction.transactionType())
+                .transactionResultType(FAILED)
+                .account(account)
+                .amount(failedTransaction.amount())
+                .balanceSnapshot(Objects.requireNonNullElse(failedTransaction.balanceSnapshot(), account.getBalance()))
+                .transactionId(Objects.requireNonNullElseGet(
+                    failedTransaction.transactionId(), transactionIdGenerator::nextId))
+                .transactionAt(failedTransaction.failedAt())
+                .build());
+        }
+
+        transactionRepository.saveAll(transactions)
+            .forEach(transaction -> transactionCache.putAfterCommit(CachedTransaction.from(transaction)));
+    }
+
+    // 거래 ID 가 없는 예전 기록은 새로 발급하므로 항상 새 거래로 본다 (같은 배치 안의 중복도 걸러낸다)
+    private static boolean isNewTransactionId(String transactionId, Set<String> savedTransactionIds) {
+        return transactionId == null || savedTransactionIds.add(transactionId);
+    }
+
+    // 캐시에 있으면 트랜잭션(커넥션) 없이 바로 응답, 없으면 repository 의 readOnly 조회로 replica 에서 읽는다
+    public TransactionDto queryTransaction(String transactionId) {
+        return findTransaction(transactionId)
+            .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND))
+            .toDto();
+    }
+
+    @Transactional(readOnly = true)
+    public TransactionHistoryDto getTransactionHistory(String accountNumber,
+                                                       String cursor,
+                                                       int size,
+                                                       TransactionType transactionType,
+                                                       TransactionResultType transactionResultType) {
         Account account = accountRepository.findByAccountNumber(accountNumber)
             .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
 
-        saveAndTransaction(amount, account, FAILED, TransactionType.CANCEL);
+        int pageSize = Math.min(Math.max(size, 1), MAX_HISTORY_PAGE_SIZE);
+        LocalDateTime cursorAt = HISTORY_START_AT;
+        long cursorId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] decoded = decodeCursor(cursor);
+            cursorAt = LocalDateTime.parse(decoded[0]);
+            cursorId = Long.parseLong(decoded[1]);
+        }
+
+        // 다음 페이지가 있는지 알기 위해 한 건 더 읽는다
+        List<Transaction> transactions = transactionRepository.findHistory(
+            account, cursorAt, cursorId, transactionType, transactionResultType,
+            PageRequest.of(0, pageSize + 1));
+
+        String nextCursor = null;
+        if (transactions.size() > pageSize) {
+            transactions = transactions.subList(0, pageSize);
+            nextCursor = encodeCursor(transactions.get(pageSize - 1));
+        }
+
+        return TransactionHistoryDto.builder()
+            .transactions(transactions.stream()
+                .map(TransactionDto::fromEntity)
+                .collect(Collectors.toList()))
+            .nextCursor(nextCursor)
+            .build();
     }
 
-    @Transactional()
-    public TransactionDto queryTransaction(String transactionId) {
-        return TransactionDto.fromEntity(
-            transactionRepository.findByTransactionId(transactionId)
-                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND))
-        );
+    private static String encodeCursor(Transaction transaction) {
+        String raw = transaction.getTransactionAt() + "," + transaction.getId();
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                .split(",");
+            if (decoded.length != 2) {
+                throw new AccountException(ErrorCode.INVALID_REQUEST);
+            }
+            LocalDateTime.parse(decoded[0]);
+            Long.parseLong(decoded[1]);
+            return decoded;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+    }
+
+    private Optional<CachedTransaction> findTransaction(String transactionId) {
+        // 형식이 맞지 않는 ID 는 저장될 수 없으므로 DB 까지 가지 않는다
+        if (!TransactionIdConverter.isValid(transactionId)) {
+            return Optional.empty();
+        }
+        Optional<CachedTransaction> cached = transactionCache.get(transactionId);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        Optional<CachedTransaction> loaded = transactionRepository.findCachedByTransactionId(transactionId);
+        loaded.ifPresent(transactionCache::put);
+        return loaded;
+    }
+
+    // 잔액 검사와 차감을 UPDATE 한 문장으로 처리, 차감 후 잔액을 돌려준다
+    private Long useBalanceAtomically(Long accountId, Long amount) {
+        if (accountRepository.decreaseBalance(accountId, amount) == 0) {
+            // 캐시의 상태는 오래됐을 수 있다 - 계좌가 사용 중일 때만 잔액 부족이다
+            validateInUse(accountId);
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+        return accountRepository.findBalanceById(accountId);
+    }
+
+    private Long cancelBalanceAtomically(Long accountId, Long amount) {
+        if (amount < 0) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+        if (accountRepository.increaseBalance(accountId, amount) == 0) {
+            validateInUse(accountId);
+        }
+        return accountRepository.findBalanceById(accountId);
+    }
+
+    private void validateInUse(Long accountId) {
+        AccountStatus accountStatus = accountRepository.findStatusById(accountId)
+            .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        if (accountStatus != AccountStatus.IN_USE) {
+            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+        }
+    }
+
+    private CachedTransaction saveAndTransaction(Long amount, Account account, TransactionResultType transactionResultType, TransactionType transactionType) {
+        return saveAndTransaction(amount, account, account.getAccountNumber(), account.getBalance(), transactionResultType, transactionType);
     }
 
-    private Transaction saveAndTransaction(Long amount, Account account, TransactionResultType transactionResultType, TransactionType transactionType) {
-        return transactionRepository.save(Transaction.builder()
+    private CachedTransaction saveAndTransaction(Long amount, Account account, String accountNumber, Long balanceSnapshot, TransactionResultType transactionResultType, TransactionType transactionType) {
+        Transaction transaction = transactionRepository.save(Transaction.builder()
             .transactionType(transactionType)
             .transactionResultType(transactionResultType)
             .account(account)
             .amount(amount)
-            .balanceSnapshot(account.getBalance())
-            .transactionId(getTransactionId())
+            .balanceSnapshot(balanceSnapshot)
+            .transactionId(transactionIdGenerator.nextId())
             .transactionAt(LocalDateTime.now())
             .build());
+        CachedTransaction cached = CachedTransaction.of(transaction, accountNumber);
+        transactionCache.putAfterCommit(cached);
+        return cached;
     }
 
-    private static String getTransactionId() {
-        return UUID.randomUUID().toString().replace("-", "");
-    }
-
-    private void validateUseBalance(Account account, AccountUser user, Long amount) {
-        if (!Objects.equals(user.getId(), account.getAccountUser().getId())) {
+    private void validateOwnership(Long userId, AccountOwnership ownership) {
+        if (!Objects.equals(userId, ownership.ownerUserId())) {
+            // 실패할 때만 사용자 존재 여부를 확인해 기존 오류 코드를 유지한다
+            if (!accountUserRepository.existsById(userId)) {
+                throw new AccountException(ErrorCode.USER_NOT_FOUND);
+            }
             throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH);
         }
-        if (account.getAccountStatus() != AccountStatus.IN_USE) {
+        if (ownership.accountStatus() != AccountStatus.IN_USE) {
             throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
         }
+    }
+
+    private void validateUseBalance(Account account, Long amount) {
+        // 다른 노드에서 방금 해지된 계좌는 캐시보다 엔티티 상태가 정확하다
+        // 이미 읽은 잔액을 실어 보내 실패 거래를 기록할 때 DB 를 다시 읽지 않게 한다
+        if (account.getAccountStatus() != AccountStatus.IN_USE) {
+            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED, account.getBalance());
+        }
         if (account.getBalance() < amount) {
-            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE, account.getBalance());
         }
     }
 
-    private void validateCancelBalance(Account account, Transaction transaction, Long amount) {
-        if (!Objects.equals(transaction.getAccount().getId(), account.getId())) {
+    private void validateCancelBalance(AccountOwnership ownership, CachedTransaction transaction, Long amount) {
+        if (!Objects.equals(transaction.accountId(), ownership.accountId())) {
             throw new AccountException(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH);
         }
-        if (!Objects.equals(transaction.getAmount(), amount)) {
+        if (!Objects.equals(transaction.amount(), amount)) {
             throw new AccountException(ErrorCode.CANCEL_MUST_FULLY);
         }
-        if (transaction.getTransactionAt().isBefore(LocalDateTime.now().minusYears(1))) {
+        if (transaction.transactedAt().isBefore(LocalDateTime.now().minusYears(1))) {
             throw new AccountException(ErrorCode.TOO_OLD_ORDER_TO_CANCEL);
         }
     }
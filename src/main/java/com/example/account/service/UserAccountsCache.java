@@ -0,0 +1,45 @@
+package com.example.account.service;
+
+import com.example.account.dto.UserAccounts;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * 사용자 ID -> 계좌 목록(GET /account 응답) 캐시
+ * 계좌 생성/해지, 잔액 변경 시 해당 사용자만 무효화하고 다른 노드에는 redis pub/sub 으로 알린다
+ */
+@Component
+public class UserAccountsCache {
+    private static final String INVALIDATION_TOPIC = "user-accounts-invalidation";
+
+    private final InvalidatingNearCache<Long, UserAccounts> cache;
+
+    public UserAccountsCache(RedissonClient redissonClient,
+                             @Qualifier("cacheCircuitBreaker") RedisCircuitBreaker circuitBreaker,
+                             MeterRegistry meterRegistry,
+                             @Value("${account.user-accounts.cache.max-size:100000}") long maxSize,
+                             @Value("${account.user-accounts.cache.ttl:PT10M}") Duration ttl) {
+        this.cache = new InvalidatingNearCache<>("userAccounts", INVALIDATION_TOPIC, Long::valueOf,
+            redissonClient, circuitBreaker, meterRegistry, maxSize, ttl);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        cache.subscribe();
+    }
+
+    public UserAccounts get(Long userId, Function<Long, UserAccounts> loader) {
+        return cache.get(userId, loader);
+    }
+
+    public void evictAfterCommit(Long userId) {
+        cache.evictAfterCommit(userId);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.account.type;
+
+public enum IdempotencyFallback {
+    // 저장소 장애 시 Idempotency-Key 가 없는 요청처럼 실행 - 다른 노드로 간 재시도는 다시 처리될 수 있다
+    PROCEED,
+    // 저장소 장애 시 Idempotency-Key 가 붙은 요청은 바로 거절
+    REJECT
+}
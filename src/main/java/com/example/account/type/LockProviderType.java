@@ -0,0 +1,10 @@
+package com.example.account.type;
+
+public enum LockProviderType {
+    // Redisson 분산 락 (로컬 stripe 락 + circuit breaker), 여러 노드 배포 기본값
+    REDIS,
+    // JVM 안의 stripe 락만 사용, 단일 노드 배포/테스트용
+    LOCAL,
+    // 계좌 행 SELECT ... FOR UPDATE, Redis 없이 여러 노드에서 사용
+    DATABASE
+}
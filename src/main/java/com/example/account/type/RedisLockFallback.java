@@ -0,0 +1,8 @@
+package com.example.account.type;
+
+public enum RedisLockFallback {
+    // Redis 장애 시 노드 로컬 락만으로 처리 - 거래를 받는 노드가 하나일 때만 안전
+    LOCAL,
+    // Redis 장애 시 락이 필요한 거래는 바로 거절
+    REJECT
+}
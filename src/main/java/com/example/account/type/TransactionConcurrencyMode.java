@@ -0,0 +1,8 @@
+package com.example.account.type;
+
+public enum TransactionConcurrencyMode {
+    LOCK,
+    QUEUE,
+    OPTIMISTIC,
+    ATOMIC
+}
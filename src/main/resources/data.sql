@@ -1,8 +1,12 @@
-INSERT INTO account_user (user_name, created_at, updated_at)
-VALUES ('testUser1', NOW(), NOW());
+-- 예제(http 파일)가 userId 1, 2, 3 을 쓰므로 id 를 직접 넣는다
+INSERT INTO account_user (id, user_name, account_count, created_at, updated_at)
+VALUES (1, 'testUser1', 0, NOW(), NOW());
 
-INSERT INTO account_user (user_name, created_at, updated_at)
-VALUES ('testUser2', NOW(), NOW());
+INSERT INTO account_user (id, user_name, account_count, created_at, updated_at)
+VALUES (2, 'testUser2', 0, NOW(), NOW());
 
-INSERT INTO account_user (user_name, created_at, updated_at)
-VALUES ('testUser3', NOW(), NOW());
\ No newline at end of file
+INSERT INTO account_user (id, user_name, account_count, created_at, updated_at)
+VALUES (3, 'testUser3', 0, NOW(), NOW());
+
+-- pooled 할당(allocationSize 50)이 위 id 와 겹치지 않도록 다음 블록부터 시작한다
+ALTER SEQUENCE account_user_seq RESTART WITH 101;
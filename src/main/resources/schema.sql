@@ -0,0 +1,2 @@
+-- 계좌번호 블록 할당용 시퀀스 (INCREMENT BY 가 노드가 한 번에 예약하는 블록 크기)
+CREATE SEQUENCE IF NOT EXISTS account_number_seq START WITH 1000000000 INCREMENT BY 100;
@@ -0,0 +1,70 @@
+package com.example.account.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplicaDataSourceConfigTest {
+    private static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary";
+    private static final String REPLICA_URL = "jdbc:h2:mem:routing-replica";
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(
+            DataSourceAutoConfiguration.class,
+            DataSourceTransactionManagerAutoConfiguration.class))
+        .withUserConfiguration(ReplicaDataSourceConfig.class)
+        .withPropertyValues(
+            "spring.datasource.url=" + PRIMARY_URL,
+            "spring.datasource.username=sa",
+            "spring.datasource.hikari.maximum-pool-size=3",
+            "account.datasource.replica.url=" + REPLICA_URL);
+
+    @DisplayName("readOnly 트랜잭션은 replica 로, 쓰기 트랜잭션은 primary 로 간다")
+    @Test
+    void routeByReadOnly() {
+        contextRunner.run(context -> {
+            // given
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+            TransactionTemplate write = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            TransactionTemplate readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            readOnly.setReadOnly(true);
+
+            // when
+            String readUrl = readOnly.execute(status -> connectionUrl(jdbcTemplate));
+            String writeUrl = write.execute(status -> connectionUrl(jdbcTemplate));
+
+            // then
+            assertTrue(readUrl.startsWith(REPLICA_URL));
+            assertTrue(writeUrl.startsWith(PRIMARY_URL));
+        });
+    }
+
+    @DisplayName("primary 풀에도 spring.datasource.hikari 설정이 적용된다")
+    @Test
+    void bindHikariProperties() {
+        contextRunner.run(context -> {
+            // when
+            HikariDataSource primaryDataSource = context.getBean("primaryDataSource", HikariDataSource.class);
+
+            // then
+            assertEquals(3, primaryDataSource.getMaximumPoolSize());
+        });
+    }
+
+    private static String connectionUrl(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getURL());
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.account.controller;
 
 import com.example.account.dto.AccountDto;
+import com.example.account.dto.AccountInfo;
 import com.example.account.dto.CloseAccount;
 import com.example.account.dto.CreateAccount;
+import com.example.account.dto.UserAccounts;
 import com.example.account.exception.AccountException;
 import com.example.account.exception.ErrorCode;
 import com.example.account.service.AccountService;
@@ -11,6 +13,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -24,6 +27,8 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -90,27 +95,13 @@ class AccountControllerTest {
     @Test
     void successGetAccount() throws Exception {
         // given
-        List<AccountDto> accounts = List.of(
-            AccountDto.builder()
-                .accountNumber("1234567890")
-                .balance(1000L)
-                .build(),
-            AccountDto.builder()
-                .accountNumber("1000000001")
-                .balance(2000L)
-                .build(),
-            AccountDto.builder()
-                .accountNumber("1111111111")
-                .balance(2000L)
-                .build()
-        );
-
-        given(accountService.getAccountByUserId(anyLong()))
-            .willReturn(accounts);
+        given(accountService.getAccountInfos(anyLong()))
+            .willReturn(userAccounts());
 
         // when // then
         mockMvc.perform(get("/account?user_id=1"))
             .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + userAccounts().etag() + "\""))
             .andExpect(jsonPath("$[0].accountNumber").value("1234567890"))
             .andExpect(jsonPath("$[0].balance").value(1000))
             .andExpect(jsonPath("$[1].accountNumber").value("1000000001"))
@@ -118,10 +109,25 @@ class AccountControllerTest {
             .andDo(print());
     }
 
+    @DisplayName("계좌 목록이 바뀌지 않았으면 304")
+    @Test
+    void getAccount_NotModified() throws Exception {
+        // given
+        given(accountService.getAccountInfos(anyLong()))
+            .willReturn(userAccounts());
+
+        // when // then
+        mockMvc.perform(get("/account?user_id=1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"" + userAccounts().etag() + "\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""))
+            .andDo(print());
+    }
+
     @Test
     void failGetAccount() throws Exception {
         // given
-        given(accountService.getAccountByUserId(anyLong()))
+        given(accountService.getAccountInfos(anyLong()))
             .willThrow(new AccountException(ACCOUNT_NOT_FOUND));
 
         // when // then
@@ -132,4 +138,21 @@ class AccountControllerTest {
 
     }
 
-}
\ No newline at end of file
+    private static UserAccounts userAccounts() {
+        return UserAccounts.of(List.of(
+            AccountInfo.builder()
+                .accountNumber("1234567890")
+                .balance(1000L)
+                .build(),
+            AccountInfo.builder()
+                .accountNumber("1000000001")
+                .balance(2000L)
+                .build(),
+            AccountInfo.builder()
+                .accountNumber("1111111111")
+                .balance(2000L)
+                .build()
+        ));
+    }
+
+}
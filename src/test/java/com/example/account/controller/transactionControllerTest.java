@@ -2,28 +2,51 @@ package com.example.account.controller;
 
 import com.example.account.dto.CancelBalance;
 import com.example.account.dto.TransactionDto;
+import com.example.account.dto.TransactionHistoryDto;
 import com.example.account.type.TransactionResultType;
 import com.example.account.dto.UseBalance;
+import com.example.account.dto.UseBalanceBatch;
+import com.example.account.exception.ErrorCode;
+import com.example.account.service.AsyncTransactionService;
+import com.example.account.service.FailedTransactionRecorder;
+import com.example.account.service.TransactionBatchService;
+import com.example.account.service.TransactionExportService;
 import com.example.account.service.TransactionService;
 import com.example.account.type.TransactionType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static com.example.account.type.TransactionResultType.SUCCESS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = TransactionController.class)
@@ -32,6 +55,18 @@ class TransactionControllerTest {
     @MockitoBean
     private TransactionService transactionService;
 
+    @MockitoBean
+    private TransactionExportService transactionExportService;
+
+    @MockitoBean
+    private FailedTransactionRecorder failedTransactionRecorder;
+
+    @MockitoBean
+    private TransactionBatchService transactionBatchService;
+
+    @MockitoBean
+    private AsyncTransactionService asyncTransactionService;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -68,6 +103,101 @@ class TransactionControllerTest {
         ;
     }
 
+    @Test
+    void successUseBalanceAsync() throws Exception {
+        // given
+        given(asyncTransactionService.useBalance(anyLong(), anyString(), anyLong()))
+            .willReturn(CompletableFuture.completedFuture(TransactionDto.builder()
+                .accountNumber("1000000000")
+                .transactedAt(LocalDateTime.now())
+                .amount(12345L)
+                .transactionId("transactionId")
+                .transactionResultType(SUCCESS)
+                .transactionType(TransactionType.USE)
+                .build()));
+
+        // when
+        MvcResult mvcResult = mockMvc.perform(post("/transaction/use/async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                    new UseBalance.Request(1L, "2000000000", 3000L)
+                ))
+            ).andExpect(request().asyncStarted())
+            .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(mvcResult))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.accountNumber").value("1000000000"))
+            .andExpect(jsonPath("$.transactionResultType").value("SUCCESS"))
+            .andExpect(jsonPath("$.transactionId").value("transactionId"))
+            .andExpect(jsonPath("$.amount").value(12345))
+        ;
+    }
+
+    @DisplayName("거래 원장 내보내기는 전역 async 타임아웃이 아니라 내보내기 타임아웃을 쓴다")
+    @Test
+    void exportTransactions() throws Exception {
+        // given
+        willAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write("{\"amount\":1000}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).given(transactionExportService).export(anyString(), any(), any());
+
+        // when
+        MvcResult mvcResult = mockMvc.perform(get("/account/1000000000/transactions/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // then
+        assertEquals(Duration.ofMinutes(10).toMillis(), mvcResult.getRequest().getAsyncContext().getTimeout());
+        mockMvc.perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"1000000000-transactions.ndjson\""))
+            .andExpect(content().contentType("application/x-ndjson"))
+            .andExpect(content().string("{\"amount\":1000}\n"));
+    }
+
+    @Test
+    void successUseBalanceBatch() throws Exception {
+        // given
+        UseBalanceBatch.Result success = UseBalanceBatch.Result.success(TransactionDto.builder()
+            .accountNumber("1000000000")
+            .transactedAt(LocalDateTime.now())
+            .amount(1000L)
+            .transactionId("transactionId")
+            .transactionResultType(SUCCESS)
+            .transactionType(TransactionType.USE)
+            .build());
+        UseBalanceBatch.Result failure =
+            UseBalanceBatch.Result.failure("1000000000", 9999L, ErrorCode.AMOUNT_EXCEED_BALANCE);
+        failure.setIndex(1);
+        given(transactionBatchService.useBalances(any()))
+            .willReturn(List.of(success, failure));
+
+        // when
+        // then
+        mockMvc.perform(post("/transaction/use/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                    new UseBalanceBatch.Request(List.of(
+                        new UseBalance.Request(1L, "1000000000", 1000L),
+                        new UseBalance.Request(1L, "1000000000", 9999L)
+                    ))
+                ))
+            ).andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.results[0].index").value(0))
+            .andExpect(jsonPath("$.results[0].transactionResultType").value("SUCCESS"))
+            .andExpect(jsonPath("$.results[0].transactionId").value("transactionId"))
+            .andExpect(jsonPath("$.results[1].index").value(1))
+            .andExpect(jsonPath("$.results[1].transactionResultType").value("FAILED"))
+            .andExpect(jsonPath("$.results[1].errorCode").value("AMOUNT_EXCEED_BALANCE"))
+        ;
+    }
+
     @Test
     void successCancelBalance() throws Exception {
         // given
@@ -121,4 +251,32 @@ class TransactionControllerTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    void successGetTransactionHistory() throws Exception {
+        // given
+        given(transactionService.getTransactionHistory(anyString(), any(), anyInt(), any(), any()))
+            .willReturn(TransactionHistoryDto.builder()
+                .transactions(List.of(TransactionDto.builder()
+                    .accountNumber("1000000000")
+                    .transactionType(TransactionType.USE)
+                    .transactionResultType(SUCCESS)
+                    .transactionId("transactionId")
+                    .amount(1000L)
+                    .transactedAt(LocalDateTime.now())
+                    .build()))
+                .nextCursor("nextCursor")
+                .build());
+
+        // when
+        // then
+        mockMvc.perform(get("/account/{accountNumber}/transactions", "1000000000")
+                .param("size", "1")
+                .param("transactionType", "USE"))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.transactions[0].transactionId").value("transactionId"))
+            .andExpect(jsonPath("$.transactions[0].amount").value(1000))
+            .andExpect(jsonPath("$.nextCursor").value("nextCursor"));
+    }
+
+}
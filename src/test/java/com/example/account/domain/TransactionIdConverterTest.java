@@ -0,0 +1,63 @@
+package com.example.account.domain;
+
+import com.example.account.service.SnowflakeTransactionIdGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionIdConverterTest {
+
+    private final TransactionIdConverter converter = new TransactionIdConverter();
+
+    @Test
+    void convertSnowflakeId() {
+        // given
+        String transactionId = new SnowflakeTransactionIdGenerator(3).nextId();
+
+        // when
+        byte[] stored = converter.convertToDatabaseColumn(transactionId);
+
+        // then
+        assertEquals(16, stored.length);
+        assertEquals(transactionId, converter.convertToEntityAttribute(stored));
+    }
+
+    @DisplayName("대문자로 들어온 snowflake ID 도 같은 값으로 저장하고 소문자로 읽는다")
+    @Test
+    void convertUpperCaseSnowflakeId() {
+        // given
+        String transactionId = new SnowflakeTransactionIdGenerator(3).nextId();
+
+        // when
+        byte[] stored = converter.convertToDatabaseColumn(transactionId.toUpperCase());
+
+        // then
+        assertTrue(TransactionIdConverter.isValid(transactionId.toUpperCase()));
+        assertEquals(transactionId, converter.convertToEntityAttribute(stored));
+    }
+
+    @Test
+    void convertUuidHexId() {
+        // given
+        String transactionId = "c5de3e889bec4b26bdbca0474eb93949";
+
+        // when
+        byte[] stored = converter.convertToDatabaseColumn(transactionId);
+
+        // then
+        assertEquals(16, stored.length);
+        assertEquals(transactionId, converter.convertToEntityAttribute(stored));
+    }
+
+    @Test
+    void rejectInvalidId() {
+        assertFalse(TransactionIdConverter.isValid("transactionId"));
+        assertTrue(TransactionIdConverter.isValid("c5de3e889bec4b26bdbca0474eb93949"));
+        assertThrows(IllegalArgumentException.class,
+            () -> converter.convertToDatabaseColumn("transactionId"));
+    }
+}
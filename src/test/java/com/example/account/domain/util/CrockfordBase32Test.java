@@ -0,0 +1,55 @@
+package com.example.account.domain.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CrockfordBase32Test {
+
+    @Test
+    void encodeAndDecode() {
+        // given
+        long value = 0x0123456789abcdefL;
+
+        // when
+        String text = CrockfordBase32.encode(value);
+
+        // then
+        assertEquals(13, text.length());
+        assertEquals(value, CrockfordBase32.decode(text));
+        assertEquals(-1L, CrockfordBase32.decode(CrockfordBase32.encode(-1L)));
+    }
+
+    @DisplayName("고정 길이라 문자열 순서와 숫자 순서가 같다")
+    @Test
+    void orderPreserved() {
+        assertTrue(CrockfordBase32.encode(31L).compareTo(CrockfordBase32.encode(32L)) < 0);
+        assertTrue(CrockfordBase32.encode(Long.MAX_VALUE).compareTo(CrockfordBase32.encode(Long.MAX_VALUE - 1)) > 0);
+    }
+
+    @DisplayName("대문자로 들어와도 같은 값으로 읽는다")
+    @Test
+    void decodeIgnoresCase() {
+        // given
+        String text = CrockfordBase32.encode(0x0123456789abcdefL);
+
+        // when
+        long value = CrockfordBase32.decode(text.toUpperCase());
+
+        // then
+        assertEquals(0x0123456789abcdefL, value);
+    }
+
+    @Test
+    void decodeInvalidValue() {
+        assertThrows(IllegalArgumentException.class,
+            () -> CrockfordBase32.decode("c5de3e889bec4b26bdbca0474eb93949"));
+        assertThrows(IllegalArgumentException.class,
+            () -> CrockfordBase32.decode("zzzzzzzzzzzzz"));
+        assertThrows(IllegalArgumentException.class,
+            () -> CrockfordBase32.decode("000000000000u"));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.account.repository;
+
+import com.example.account.domain.AccountUser;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class AccountUserRepositoryTest {
+    private static final int REQUESTS = 100;
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @DisplayName("사용자 조회는 2차 캐시에 올라간 뒤로 SELECT 없이 처리된다")
+    @Test
+    void findByIdHitsSecondLevelCache() {
+        // given - data.sql 의 사용자
+        Long userId = accountUserRepository.findAll().get(0).getId();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        // when - 요청마다 새 영속성 컨텍스트로 조회
+        for (int i = 0; i < REQUESTS; i++) {
+            testEntityManager.clear();
+            AccountUser accountUser = accountUserRepository.findById(userId).orElseThrow();
+            assertEquals(userId, accountUser.getId());
+        }
+
+        // then - 첫 요청만 DB 를 읽는다 (캐시 전: 요청당 1회 -> 캐시 후: 전체 1회)
+        assertEquals(1L, statistics.getPrepareStatementCount());
+        assertEquals(1L, statistics.getSecondLevelCacheMissCount());
+        assertEquals(REQUESTS - 1, statistics.getSecondLevelCacheHitCount());
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.account.repository;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountUser;
+import com.example.account.domain.Transaction;
+import com.example.account.domain.util.CrockfordBase32;
+import com.example.account.dto.CachedTransaction;
+import com.example.account.type.AccountStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.account.type.TransactionResultType.SUCCESS;
+import static com.example.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.account.repository.TransactionRepositoryTest$ReadOnlyRecorder"
+})
+class TransactionRepositoryTest {
+    private static final int BATCH_ROWS = 200;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @DisplayName("거래 조회는 SQL 한 번으로 캐시 값을 채운다")
+    @Test
+    void findCachedByTransactionId_singleStatement() {
+        // given
+        AccountUser accountUser = testEntityManager.persist(new AccountUser("projectionUser"));
+        Account account = testEntityManager.persist(Account.builder()
+            .accountUser(accountUser)
+            .accountNumber("2000000000")
+            .accountStatus(AccountStatus.IN_USE)
+            .balance(10000L)
+            .build());
+        String transactionId = CrockfordBase32.encode(42L);
+        testEntityManager.persist(Transaction.builder()
+            .account(account)
+            .transactionId(transactionId)
+            .transactionType(USE)
+            .transactionResultType(SUCCESS)
+            .amount(1000L)
+            .balanceSnapshot(9000L)
+            .transactionAt(LocalDateTime.now())
+            .build());
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        CachedTransaction cachedTransaction = transactionRepository.findCachedByTransactionId(transactionId)
+            .orElseThrow();
+
+        // then
+        assertEquals(1L, statistics.getPrepareStatementCount());
+        assertEquals(0L, statistics.getEntityLoadCount());
+        assertEquals(account.getId(), cachedTransaction.accountId());
+        assertEquals("2000000000", cachedTransaction.accountNumber());
+        assertEquals(transactionId, cachedTransaction.transactionId());
+        assertEquals(1000L, cachedTransaction.amount());
+        assertEquals(9000L, cachedTransaction.balanceSnapshot());
+    }
+
+    @DisplayName("트랜잭션 밖에서 거래를 조회(캐시 miss)하면 readOnly 트랜잭션에서 실행되어 replica 로 간다")
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void findCachedByTransactionId_readOnly() {
+        // given
+        ReadOnlyRecorder.readOnly = null;
+
+        // when
+        transactionRepository.findCachedByTransactionId(CrockfordBase32.encode(43L));
+
+        // then - LazyConnectionDataSourceProxy 는 이 readOnly 여부로 replica 풀을 고른다
+        assertEquals(Boolean.TRUE, ReadOnlyRecorder.readOnly);
+    }
+
+    @DisplayName("거래 INSERT 는 시퀀스 ID 로 JDBC 배치 전송된다")
+    @Test
+    void saveAll_batchInserts() {
+        // given
+        AccountUser accountUser = testEntityManager.persist(new AccountUser("batchUser"));
+        Account account = testEntityManager.persist(Account.builder()
+            .accountUser(accountUser)
+            .accountNumber("2000000001")
+            .accountStatus(AccountStatus.IN_USE)
+            .balance(10000L)
+            .build());
+        testEntityManager.flush();
+
+        List<Transaction> transactions = new ArrayList<>();
+        for (long i = 0; i < BATCH_ROWS; i++) {
+            transactions.add(Transaction.builder()
+                .account(account)
+                .transactionId(CrockfordBase32.encode(1000L + i))
+                .transactionType(USE)
+                .transactionResultType(SUCCESS)
+                .amount(1L)
+                .balanceSnapshot(10000L - i)
+                .transactionAt(LocalDateTime.now())
+                .build());
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        transactionRepository.saveAll(transactions);
+        testEntityManager.flush();
+
+        // then - IDENTITY 였다면 INSERT 만 200번, 지금은 배치(50건) 4번 + 시퀀스 조회 몇 번
+        assertEquals(BATCH_ROWS, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 10,
+            "prepared statements: " + statistics.getPrepareStatementCount());
+    }
+
+    // SQL 을 보내는 시점의 트랜잭션이 readOnly 인지 기록한다
+    public static class ReadOnlyRecorder implements StatementInspector {
+        private static volatile Boolean readOnly;
+
+        @Override
+        public String inspect(String sql) {
+            readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+            return sql;
+        }
+    }
+}
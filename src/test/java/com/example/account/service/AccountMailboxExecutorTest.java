@@ -0,0 +1,237 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.exception.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountMailboxExecutorTest {
+
+    @Mock
+    private LockProvider lockProvider;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newFixedThreadPool(4);
+    private AccountMailboxExecutor accountMailboxExecutor;
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        accountMailboxExecutor.shutdown();
+    }
+
+    @Test
+    void executeInAccountLock() throws Throwable {
+        // given
+        accountMailboxExecutor = new AccountMailboxExecutor(lockProvider, new BackgroundThreads(false), meterRegistry, 10, 2, 5000L);
+
+        // when
+        Object result = accountMailboxExecutor.execute("1000000000", () -> "done");
+
+        // then
+        assertEquals("done", result);
+        verify(lockProvider, atLeastOnce()).lock("1000000000");
+        verify(lockProvider, atLeastOnce()).unlock("1000000000");
+    }
+
+    @DisplayName("같은 계좌의 거래는 하나씩 순서대로 처리된다")
+    @Test
+    void runSeriallyPerAccount() throws Exception {
+        // given
+        accountMailboxExecutor = new AccountMailboxExecutor(lockProvider, new BackgroundThreads(false), meterRegistry, 100, 2, 5000L);
+        List<Integer> processed = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        // when
+        List<Future<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            int seq = i;
+            futures.add(submit(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                processed.add(seq);
+                running.decrementAndGet();
+                return seq;
+            }));
+        }
+        for (Future<Object> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+
+        // then
+        assertEquals(20, processed.size());
+        assertEquals(1, maxRunning.get());
+    }
+
+    @DisplayName("대기열이 비워져 제거되는 중에 들어온 거래도 같은 계좌의 다른 거래와 동시에 실행되지 않는다")
+    @Test
+    void runSeriallyWhileMailboxIsRemoved() throws Exception {
+        // given - 작업자가 여럿이고 거래가 짧아 mailbox 가 자주 비워지고 다시 만들어진다
+        accountMailboxExecutor = new AccountMailboxExecutor(lockProvider, new BackgroundThreads(false), meterRegistry, 100, 4, 5000L);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger processed = new AtomicInteger();
+
+        // when
+        List<Future<Object>> futures = new ArrayList<>();
+        for (int caller = 0; caller < 4; caller++) {
+            futures.add(callers.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    try {
+                        accountMailboxExecutor.execute("1000000000", () -> {
+                            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                            processed.incrementAndGet();
+                            running.decrementAndGet();
+                            return null;
+                        });
+                    } catch (Throwable t) {
+                        throw new IllegalStateException(t);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<Object> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+
+        // then
+        assertEquals(2000, processed.get());
+        assertEquals(1, maxRunning.get());
+    }
+
+    @DisplayName("mailbox 가 비워지고 제거되는 중에 계속 거래가 들어와도 호출한 순서대로 하나씩 처리된다")
+    @Test
+    void keepOrderWhileDraining() throws Exception {
+        // given - 거래가 짧아 작업자가 mailbox 를 비우고 제거하는 사이에 다음 거래가 계속 들어온다
+        accountMailboxExecutor = new AccountMailboxExecutor(lockProvider, new BackgroundThreads(false), meterRegistry, 100, 4, 5000L);
+        int callerCount = 4;
+        int perCaller = 500;
+        List<List<Integer>> processed = new ArrayList<>();
+        for (int caller = 0; caller < callerCount; caller++) {
+            processed.add(Collections.synchronizedList(new ArrayList<>()));
+        }
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        // when
+        List<Future<Object>> futures = new ArrayList<>();
+        for (int caller = 0; caller < callerCount; caller++) {
+            List<Integer> mine = processed.get(caller);
+            futures.add(callers.submit(() -> {
+                start.await();
+                for (int i = 0; i < perCaller; i++) {
+                    int seq = i;
+                    try {
+                        accountMailboxExecutor.execute("1000000000", () -> {
+                            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                            mine.add(seq);
+                            running.decrementAndGet();
+                            return null;
+                        });
+                    } catch (Throwable t) {
+                        throw new IllegalStateException(t);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<Object> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+
+        // then
+        assertEquals(1, maxRunning.get());
+        List<Integer> expected = IntStream.range(0, perCaller).boxed().toList();
+        for (List<Integer> mine : processed) {
+            assertEquals(expected, mine);
+        }
+    }
+
+    @DisplayName("대기열이 가득 차면 거래를 거절한다")
+    @Test
+    void rejectWhenMailboxFull() throws Exception {
+        // given
+        accountMailboxExecutor = new AccountMailboxExecutor(lockProvider, new BackgroundThreads(false), meterRegistry, 1, 1, 5000L);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        submit(() -> {
+            started.countDown();
+            release.await();
+            return null;
+        });
+        started.await(5, TimeUnit.SECONDS);
+        submit(() -> null);
+        waitForQueuedTask();
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> accountMailboxExecutor.execute("1000000000", () -> null));
+
+        // then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_QUEUE_FULL, exception.getErrorCode());
+        assertEquals(1.0, meterRegistry.get("account.transaction.queue.rejected").counter().count());
+        release.countDown();
+    }
+
+    @DisplayName("계좌 락을 못 잡으면 대기 중인 거래에 락 오류를 전달한다")
+    @Test
+    void failWhenLockUnavailable() {
+        // given
+        accountMailboxExecutor = new AccountMailboxExecutor(lockProvider, new BackgroundThreads(false), meterRegistry, 10, 2, 5000L);
+        willThrow(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK))
+            .given(lockProvider).lock(anyString());
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> accountMailboxExecutor.execute("1000000000", () -> "done"));
+
+        // then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+    }
+
+    private Future<Object> submit(AccountMailboxExecutor.GuardedCall call) {
+        return callers.submit(() -> {
+            try {
+                return accountMailboxExecutor.execute("1000000000", call);
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        });
+    }
+
+    private void waitForQueuedTask() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("account.transaction.queue.depth").gauge().value() < 1
+            && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
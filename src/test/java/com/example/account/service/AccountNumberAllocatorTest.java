@@ -0,0 +1,84 @@
+package com.example.account.service;
+
+import com.example.account.repository.AccountRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountNumberAllocatorTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @DisplayName("블록 안에서는 DB 조회 없이 번호를 나눠준다")
+    @Test
+    void allocateFromBlock() {
+        // given
+        given(accountRepository.nextAccountNumberBlock())
+            .willReturn(1000000000L, 1000000003L);
+        given(accountRepository.findAccountNumberBlockSize())
+            .willReturn(3L);
+        AccountNumberAllocator allocator = new AccountNumberAllocator(accountRepository);
+
+        // when
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            numbers.add(allocator.nextAccountNumber());
+        }
+
+        // then
+        assertEquals(List.of("1000000000", "1000000001", "1000000002", "1000000003"), numbers);
+        verify(accountRepository, times(2)).nextAccountNumberBlock();
+        // 블록 크기는 한 번만 읽는다
+        verify(accountRepository, times(1)).findAccountNumberBlockSize();
+    }
+
+    @DisplayName("동시에 생성해도 계좌번호가 겹치지 않는다")
+    @Test
+    void allocateUniqueUnderConcurrency() throws Exception {
+        // given
+        AtomicLong sequence = new AtomicLong(1000000000L);
+        given(accountRepository.nextAccountNumberBlock())
+            .willAnswer(invocation -> sequence.getAndAdd(10));
+        given(accountRepository.findAccountNumberBlockSize())
+            .willReturn(10L);
+        AccountNumberAllocator allocator = new AccountNumberAllocator(accountRepository);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+
+        // when
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < 500; j++) {
+                    numbers.add(allocator.nextAccountNumber());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // then
+        assertEquals(4000, numbers.size());
+    }
+}
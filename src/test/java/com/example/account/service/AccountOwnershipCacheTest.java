@@ -0,0 +1,123 @@
+package com.example.account.service;
+
+import com.example.account.dto.AccountOwnership;
+import com.example.account.repository.AccountRepository;
+import com.example.account.type.AccountStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.redisson.misc.CompletableFutureWrapper;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountOwnershipCacheTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RTopic topic;
+
+    private final RedisCircuitBreaker circuitBreaker =
+        new RedisCircuitBreaker("cache", new SimpleMeterRegistry(), 1, Duration.ofMinutes(1));
+    private AccountOwnershipCache accountOwnershipCache;
+
+    @BeforeEach
+    void setUp() {
+        given(redissonClient.getTopic(anyString(), any(Codec.class)))
+            .willReturn(topic);
+        accountOwnershipCache = new AccountOwnershipCache(accountRepository, redissonClient, circuitBreaker,
+            new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+    }
+
+    @DisplayName("한 번 읽은 계좌는 DB 조회 없이 캐시에서 찾는다")
+    @Test
+    void getCachesOwnership() {
+        // given
+        given(accountRepository.findOwnershipByAccountNumber("1000000012"))
+            .willReturn(Optional.of(new AccountOwnership(1L, 12L, AccountStatus.IN_USE)));
+
+        // when
+        accountOwnershipCache.get("1000000012");
+        Optional<AccountOwnership> ownership = accountOwnershipCache.get("1000000012");
+
+        // then
+        assertEquals(12L, ownership.orElseThrow().ownerUserId());
+        verify(accountRepository, times(1)).findOwnershipByAccountNumber("1000000012");
+    }
+
+    @DisplayName("없는 계좌는 캐시하지 않는다")
+    @Test
+    void missingAccountIsNotCached() {
+        // given
+        given(accountRepository.findOwnershipByAccountNumber("1000000012"))
+            .willReturn(Optional.empty());
+
+        // when
+        accountOwnershipCache.get("1000000012");
+        Optional<AccountOwnership> ownership = accountOwnershipCache.get("1000000012");
+
+        // then
+        assertTrue(ownership.isEmpty());
+        verify(accountRepository, times(2)).findOwnershipByAccountNumber("1000000012");
+    }
+
+    @DisplayName("무효화하면 다시 읽고, 다른 노드에 계좌번호를 알린다")
+    @Test
+    void evictReloadsAndPublishes() {
+        // given
+        given(accountRepository.findOwnershipByAccountNumber("1000000012"))
+            .willReturn(Optional.of(new AccountOwnership(1L, 12L, AccountStatus.IN_USE)))
+            .willReturn(Optional.of(new AccountOwnership(1L, 12L, AccountStatus.UNREGISTERED)));
+        given(topic.publishAsync("1000000012"))
+            .willReturn(new CompletableFutureWrapper<>(1L));
+        accountOwnershipCache.get("1000000012");
+
+        // when
+        accountOwnershipCache.evictAfterCommit("1000000012");
+        Optional<AccountOwnership> ownership = accountOwnershipCache.get("1000000012");
+
+        // then
+        assertEquals(AccountStatus.UNREGISTERED, ownership.orElseThrow().accountStatus());
+        verify(topic, times(1)).publishAsync("1000000012");
+    }
+
+    @DisplayName("Redis circuit 이 열려 있으면 로컬 캐시만 비우고 알리지 않는다")
+    @Test
+    void circuitOpenSkipsPublish() {
+        // given
+        given(accountRepository.findOwnershipByAccountNumber("1000000012"))
+            .willReturn(Optional.of(new AccountOwnership(1L, 12L, AccountStatus.IN_USE)));
+        accountOwnershipCache.get("1000000012");
+        circuitBreaker.onFailure();
+
+        // when
+        accountOwnershipCache.evictAfterCommit("1000000012");
+        accountOwnershipCache.get("1000000012");
+
+        // then
+        verify(accountRepository, times(2)).findOwnershipByAccountNumber("1000000012");
+        verify(topic, never()).publishAsync(any());
+    }
+}
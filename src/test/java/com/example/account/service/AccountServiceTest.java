@@ -5,6 +5,7 @@ import com.example.account.domain.Account;
 import com.example.account.type.AccountStatus;
 import com.example.account.domain.AccountUser;
 import com.example.account.dto.AccountDto;
+import com.example.account.dto.UserAccounts;
 import com.example.account.exception.AccountException;
 import com.example.account.exception.ErrorCode;
 import com.example.account.repository.AccountRepository;
@@ -16,9 +17,13 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -37,6 +42,18 @@ class AccountServiceTest {
     @Mock
     private AccountUserRepository accountUserRepository;
 
+    @Mock
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @Mock
+    private AccountOwnershipCache accountOwnershipCache;
+
+    @Mock
+    private UserAccountsCache userAccountsCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private AccountService accountService;
 
@@ -49,14 +66,11 @@ class AccountServiceTest {
             .userName("testUser")
             .build();
 
-        given(accountUserRepository.findById(anyLong()))
+        given(accountUserRepository.findByIdForUpdate(anyLong()))
             .willReturn(Optional.of(accountUser));
 
-        given(accountRepository.findFirstByOrderByIdDesc())
-            .willReturn(Optional.of(Account.builder()
-                .accountUser(accountUser)
-                .accountNumber("1000000012")
-                .build()));
+        given(accountNumberAllocator.nextAccountNumber())
+            .willReturn("1000000013");
 
         given(accountRepository.save(any()))
             .willReturn(Account.builder()
@@ -71,6 +85,7 @@ class AccountServiceTest {
         verify(accountRepository, times(1)).save(accountCaptor.capture());
         assertEquals(12L, accountDto.getUserId());
         assertEquals("1000000013", accountCaptor.getValue().getAccountNumber());
+        assertEquals(1, accountUser.getAccountCount());
 
     }
 
@@ -83,9 +98,6 @@ class AccountServiceTest {
             .userName("testUser")
             .build();
 
-        given(accountUserRepository.findById(anyLong()))
-            .willReturn(Optional.of(accountUser));
-
         Account account = Account.builder()
             .accountUser(accountUser)
             .balance(0L)
@@ -95,12 +107,18 @@ class AccountServiceTest {
 
         given(accountRepository.findByAccountNumber(anyString()))
             .willReturn(Optional.of(account));
+        ReflectionTestUtils.setField(accountUser, "accountCount", 3);
+        given(accountUserRepository.findByIdForUpdate(12L))
+            .willReturn(Optional.of(accountUser));
 
         // when
-        AccountDto accountDto = accountService.closeAccount(1L, "1000000012");
+        AccountDto accountDto = accountService.closeAccount(12L, "1000000012");
         // then
         assertEquals(12L, accountDto.getUserId());
         assertEquals(AccountStatus.UNREGISTERED, accountDto.getStatus());
+        assertEquals(2, accountUser.getAccountCount());
+        verify(accountOwnershipCache, times(1)).evictAfterCommit("1000000012");
+        verify(userAccountsCache, times(1)).evictAfterCommit(12L);
 
     }
 
@@ -113,11 +131,11 @@ class AccountServiceTest {
             .userName("testUser")
             .build();
 
-        given(accountUserRepository.findById(anyLong()))
+        given(accountUserRepository.findByIdForUpdate(anyLong()))
             .willReturn(Optional.of(accountUser));
 
-        given(accountRepository.findFirstByOrderByIdDesc())
-            .willReturn(Optional.empty());
+        given(accountNumberAllocator.nextAccountNumber())
+            .willReturn("1000000000");
 
         given(accountRepository.save(any()))
             .willReturn(Account.builder()
@@ -139,7 +157,7 @@ class AccountServiceTest {
     @Test
     void createAccount_UserNotFound() {
         // given
-        given(accountUserRepository.findById(anyLong()))
+        given(accountUserRepository.findByIdForUpdate(anyLong()))
             .willReturn(Optional.empty());
 
         // when
@@ -152,8 +170,19 @@ class AccountServiceTest {
     @Test
     void closeAccount_UserNotFound() {
         // given
-        given(accountUserRepository.findById(anyLong()))
-            .willReturn(Optional.empty());
+        AccountUser owner = AccountUser.builder()
+            .id(12L)
+            .userName("testUser")
+            .build();
+
+        given(accountRepository.findByAccountNumber(anyString()))
+            .willReturn(Optional.of(Account.builder()
+                .accountUser(owner)
+                .accountNumber("1234567890")
+                .balance(0L)
+                .build()));
+        given(accountUserRepository.existsById(anyLong()))
+            .willReturn(false);
 
         // when
         AccountException exception = assertThrows(AccountException.class,
@@ -166,13 +195,6 @@ class AccountServiceTest {
     @Test
     void closeAccount_AccountNotFound() {
         // given
-        AccountUser accountUser = AccountUser.builder()
-            .id(12L)
-            .userName("testUser")
-            .build();
-
-        given(accountUserRepository.findById(anyLong()))
-            .willReturn(Optional.of(accountUser));
         given(accountRepository.findByAccountNumber(anyString()))
             .willReturn(Optional.empty());
 
@@ -197,19 +219,18 @@ class AccountServiceTest {
             .userName("testUser")
             .build();
 
-        given(accountUserRepository.findById(anyLong()))
-            .willReturn(Optional.of(harry));
-
         given(accountRepository.findByAccountNumber(anyString()))
             .willReturn(Optional.of(Account.builder()
                 .accountUser(pobi)
                 .accountNumber("1000000012")
                 .balance(0L)
                 .build()));
+        given(accountUserRepository.existsById(anyLong()))
+            .willReturn(true);
 
         // when
         AccountException exception = assertThrows(AccountException.class,
-            () -> accountService.closeAccount(1L, "1234567890"));
+            () -> accountService.closeAccount(harry.getId(), "1234567890"));
         // then
         assertEquals(ErrorCode.USER_ACCOUNT_UN_MATCH, exception.getErrorCode());
     }
@@ -224,9 +245,6 @@ class AccountServiceTest {
             .userName("testUser")
             .build();
 
-        given(accountUserRepository.findById(anyLong()))
-            .willReturn(Optional.of(user));
-
         given(accountRepository.findByAccountNumber(anyString()))
             .willReturn(Optional.of(Account.builder()
                 .accountUser(user)
@@ -236,7 +254,7 @@ class AccountServiceTest {
 
         // when
         AccountException exception = assertThrows(AccountException.class,
-            () -> accountService.closeAccount(1L, "1234567890"));
+            () -> accountService.closeAccount(12L, "1234567890"));
         // then
         assertEquals(ErrorCode.BALANCE_NOT_EMPTY, exception.getErrorCode());
     }
@@ -250,9 +268,6 @@ class AccountServiceTest {
             .userName("testUser")
             .build();
 
-        given(accountUserRepository.findById(anyLong()))
-            .willReturn(Optional.of(user));
-
         given(accountRepository.findByAccountNumber(anyString()))
             .willReturn(Optional.of(Account.builder()
                 .accountUser(user)
@@ -263,7 +278,7 @@ class AccountServiceTest {
 
         // when
         AccountException exception = assertThrows(AccountException.class,
-            () -> accountService.closeAccount(1L, "1234567890"));
+            () -> accountService.closeAccount(12L, "1234567890"));
         // then
         assertEquals(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED, exception.getErrorCode());
     }
@@ -277,12 +292,10 @@ class AccountServiceTest {
             .userName("testUser")
             .build();
 
-        given(accountUserRepository.findById(anyLong()))
+        given(accountUserRepository.findByIdForUpdate(anyLong()))
             .willReturn(Optional.of(accountUser));
 
-        given(accountRepository.countByAccountUser(any()))
-            .willReturn(10);
-
+        ReflectionTestUtils.setField(accountUser, "accountCount", 10);
 
         // when
         AccountException exception = assertThrows(AccountException.class,
@@ -290,6 +303,7 @@ class AccountServiceTest {
         // then
         assertEquals(ErrorCode.USER_ACCOUNT_PER_USER_10,
             exception.getErrorCode());
+        verify(accountRepository, times(0)).save(any());
     }
 
     @DisplayName("사용자 계좌 목록 조회 성공" )
@@ -357,4 +371,36 @@ class AccountServiceTest {
         assertEquals(ErrorCode.USER_NOT_FOUND, exception.getErrorCode());
 
     }
-}
\ No newline at end of file
+
+    @DisplayName("계좌 목록 캐시가 비어 있으면 조회해서 ETag 와 함께 채운다")
+    @Test
+    void getAccountInfos() {
+        // given
+        AccountUser accountUser = AccountUser.builder()
+            .id(15L)
+            .userName("testUser")
+            .build();
+
+        given(userAccountsCache.get(anyLong(), any()))
+            .willAnswer(invocation -> invocation.<Function<Long, UserAccounts>>getArgument(1)
+                .apply(invocation.getArgument(0)));
+        given(accountUserRepository.findById(anyLong()))
+            .willReturn(Optional.of(accountUser));
+        given(accountRepository.findByAccountUserAndAccountStatus(any(), eq(AccountStatus.IN_USE)))
+            .willReturn(List.of(Account.builder()
+                .accountUser(accountUser)
+                .accountStatus(AccountStatus.IN_USE)
+                .accountNumber("1234567890")
+                .balance(1000L)
+                .build()));
+
+        // when
+        UserAccounts userAccounts = accountService.getAccountInfos(15L);
+
+        // then
+        assertEquals(1, userAccounts.accounts().size());
+        assertEquals("1234567890", userAccounts.accounts().get(0).getAccountNumber());
+        assertEquals(UserAccounts.of(userAccounts.accounts()).etag(), userAccounts.etag());
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+}
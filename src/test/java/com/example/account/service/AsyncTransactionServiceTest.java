@@ -0,0 +1,190 @@
+package com.example.account.service;
+
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.exception.ErrorCode;
+import com.example.account.type.TransactionConcurrencyMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncTransactionServiceTest {
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private LockService lockService;
+
+    @Mock
+    private AccountMailboxExecutor accountMailboxExecutor;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private AsyncTransactionService asyncTransactionService;
+
+    @BeforeEach
+    void setUp() {
+        asyncTransactionService = asyncTransactionService(new RedisLockProvider(lockService), TransactionConcurrencyMode.LOCK);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @DisplayName("락을 얻은 뒤 작업 스레드에서 처리하고, 같은 소유자 ID 로 해제한다")
+    @Test
+    void useBalance_lockedAndReleased() throws Exception {
+        // given
+        TransactionDto transactionDto = TransactionDto.builder()
+            .transactionId("transactionId")
+            .build();
+        given(lockService.lockAsync("1000000000", 5000L, 15000L))
+            .willReturn(CompletableFuture.completedFuture(-7L));
+        given(lockService.unlockAsync("1000000000", -7L))
+            .willReturn(CompletableFuture.completedFuture(null));
+        given(transactionService.useBalance(1L, "1000000000", 1000L))
+            .willReturn(transactionDto);
+
+        // when
+        TransactionDto result = asyncTransactionService.useBalance(1L, "1000000000", 1000L)
+            .get(5, TimeUnit.SECONDS);
+
+        // then
+        assertSame(transactionDto, result);
+        verify(lockService).unlockAsync("1000000000", -7L);
+    }
+
+    @DisplayName("거래가 실패해도 락을 해제하고 원래 예외를 넘긴다")
+    @Test
+    void useBalance_failedStillReleases() {
+        // given
+        given(lockService.lockAsync("1000000000", 5000L, 15000L))
+            .willReturn(CompletableFuture.completedFuture(-7L));
+        given(lockService.unlockAsync("1000000000", -7L))
+            .willReturn(CompletableFuture.completedFuture(null));
+        given(transactionService.useBalance(1L, "1000000000", 1000L))
+            .willThrow(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+
+        // when
+        ExecutionException exception = assertThrows(ExecutionException.class,
+            () -> asyncTransactionService.useBalance(1L, "1000000000", 1000L).get(5, TimeUnit.SECONDS));
+
+        // then
+        assertInstanceOf(AccountException.class, exception.getCause());
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, ((AccountException) exception.getCause()).getErrorCode());
+        verify(lockService).unlockAsync("1000000000", -7L);
+    }
+
+    @DisplayName("락을 얻지 못하면 거래를 처리하지 않는다")
+    @Test
+    void useBalance_lockFailed() {
+        // given
+        given(lockService.lockAsync("1000000000", 5000L, 15000L))
+            .willReturn(CompletableFuture.failedFuture(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK)));
+
+        // when
+        ExecutionException exception = assertThrows(ExecutionException.class,
+            () -> asyncTransactionService.useBalance(1L, "1000000000", 1000L).get(5, TimeUnit.SECONDS));
+
+        // then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, ((AccountException) exception.getCause()).getErrorCode());
+        verify(transactionService, never()).useBalance(anyLong(), anyString(), anyLong());
+        verify(lockService, never()).unlockAsync(anyString(), anyLong());
+    }
+
+    @DisplayName("Redis 가 아닌 락 구현을 설정하면 비동기 경로도 그 구현으로 락을 잡는다")
+    @Test
+    void useBalance_configuredLockProvider() throws Exception {
+        // given
+        LocalLockRegistry localLockRegistry = new LocalLockRegistry(16);
+        asyncTransactionService = asyncTransactionService(
+            new LocalLockProvider(localLockRegistry), TransactionConcurrencyMode.LOCK);
+        given(transactionService.useBalance(1L, "1000000000", 1000L))
+            .willAnswer(invocation -> {
+                // 작업 중에는 다른 스레드가 같은 계좌의 락을 잡을 수 없다
+                assertFalse(CompletableFuture.supplyAsync(() -> tryLock(localLockRegistry)).get());
+                return TransactionDto.builder().transactionId("transactionId").build();
+            });
+
+        // when
+        TransactionDto result = asyncTransactionService.useBalance(1L, "1000000000", 1000L)
+            .get(5, TimeUnit.SECONDS);
+
+        // then
+        assertEquals("transactionId", result.getTransactionId());
+        assertTrue(CompletableFuture.supplyAsync(() -> tryLock(localLockRegistry)).get());
+        verifyNoInteractions(lockService);
+    }
+
+    @DisplayName("OPTIMISTIC 모드에서는 비동기 경로도 락 없이 실행하고 충돌 시 재시도한다")
+    @Test
+    void useBalance_optimisticRetry() throws Exception {
+        // given
+        asyncTransactionService = asyncTransactionService(
+            new RedisLockProvider(lockService), TransactionConcurrencyMode.OPTIMISTIC);
+        TransactionDto transactionDto = TransactionDto.builder()
+            .transactionId("transactionId")
+            .build();
+        given(transactionService.useBalance(1L, "1000000000", 1000L))
+            .willThrow(new OptimisticLockingFailureException("conflict"))
+            .willReturn(transactionDto);
+
+        // when
+        TransactionDto result = asyncTransactionService.useBalance(1L, "1000000000", 1000L)
+            .get(5, TimeUnit.SECONDS);
+
+        // then
+        assertSame(transactionDto, result);
+        verify(transactionService, times(2)).useBalance(1L, "1000000000", 1000L);
+        verifyNoInteractions(lockService);
+    }
+
+    private AsyncTransactionService asyncTransactionService(LockProvider lockProvider,
+                                                            TransactionConcurrencyMode concurrencyMode) {
+        AccountConcurrencyGuard accountConcurrencyGuard = new AccountConcurrencyGuard(lockProvider, accountMailboxExecutor);
+        ReflectionTestUtils.setField(accountConcurrencyGuard, "concurrencyMode", concurrencyMode);
+        ReflectionTestUtils.setField(accountConcurrencyGuard, "optimisticBackoffMillis", 0L);
+        return new AsyncTransactionService(transactionService, accountConcurrencyGuard, executor);
+    }
+
+    private static boolean tryLock(LocalLockRegistry localLockRegistry) {
+        try {
+            boolean locked = localLockRegistry.tryLock("1000000000", 0, TimeUnit.MILLISECONDS);
+            if (locked) {
+                localLockRegistry.unlock("1000000000");
+            }
+            return locked;
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.account.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ThreadFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BackgroundThreadsTest {
+
+    @DisplayName("Java 21 미만에서는 가상 스레드를 켜도 일반 스레드를 만든다")
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    void virtualEnabled_platformThreadsBelowJava21() {
+        // given
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("spring.threads.virtual.enabled", "true");
+        BackgroundThreads backgroundThreads = new BackgroundThreads(environment);
+
+        // when
+        ThreadFactory factory = backgroundThreads.factory("worker-");
+        Thread thread = factory.newThread(() -> {
+        });
+
+        // then
+        assertFalse(backgroundThreads.isVirtual());
+        assertInstanceOf(CustomizableThreadFactory.class, factory);
+        assertEquals(Thread.class, thread.getClass());
+        assertTrue(thread.getName().startsWith("worker-"));
+    }
+
+    @DisplayName("설정이 없으면 일반 스레드를 만든다")
+    @Test
+    void virtualDisabled_platformThreads() {
+        // given
+        BackgroundThreads backgroundThreads = new BackgroundThreads(new MockEnvironment());
+
+        // when
+        ThreadFactory factory = backgroundThreads.factory("worker-");
+
+        // then
+        assertFalse(backgroundThreads.isVirtual());
+        assertInstanceOf(CustomizableThreadFactory.class, factory);
+    }
+}
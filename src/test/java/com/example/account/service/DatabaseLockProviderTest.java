@@ -0,0 +1,182 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountUser;
+import com.example.account.exception.AccountException;
+import com.example.account.exception.ErrorCode;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.AccountUserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 락 트랜잭션을 provider 가 직접 열고 닫으므로 테스트 트랜잭션 없이 H2 에서 실행한다
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:lock-provider;LOCK_TIMEOUT=500")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DatabaseLockProviderTest {
+    private static final String ACCOUNT_NUMBER = "3000000000";
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private DatabaseLockProvider lockProvider;
+
+    // 락 트랜잭션은 잡은 스레드에 묶이므로 먼저 잡는 쪽과 뒤에 오는 쪽 스레드를 나눈다
+    private final ExecutorService holder = Executors.newSingleThreadExecutor();
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @BeforeEach
+    void setUp() {
+        lockProvider = new DatabaseLockProvider(
+            SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory), transactionManager);
+        AccountUser accountUser = accountUserRepository.save(new AccountUser("lockUser"));
+        accountRepository.save(Account.builder()
+            .accountUser(accountUser)
+            .accountNumber(ACCOUNT_NUMBER)
+            .balance(10000L)
+            .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        holder.shutdownNow();
+        executor.shutdownNow();
+        accountRepository.deleteAll();
+        accountUserRepository.deleteAll(accountUserRepository.findAll().stream()
+            .filter(user -> user.getUserName().startsWith("lock"))
+            .toList());
+    }
+
+    @DisplayName("같은 계좌는 앞의 락 트랜잭션이 끝날 때까지 기다린다")
+    @Test
+    void sameAccountWaitsForRowLock() throws Exception {
+        // given
+        holder.submit(() -> lockProvider.lock(ACCOUNT_NUMBER, 5000L, 15000L, "test")).get();
+
+        // when
+        Future<?> second = executor.submit(() -> {
+            lockProvider.lock(ACCOUNT_NUMBER, 5000L, 15000L, "test");
+            lockProvider.unlock(ACCOUNT_NUMBER);
+            return null;
+        });
+        Thread.sleep(100L);
+        boolean waiting = !second.isDone();
+        unlockOnHolder();
+
+        // then
+        assertTrue(waiting);
+        second.get(5, TimeUnit.SECONDS);
+    }
+
+    @DisplayName("행 락을 얻지 못하면 트랜잭션을 롤백하고 락 오류로 실패한다")
+    @Test
+    void lockTimeout() throws Exception {
+        // given
+        holder.submit(() -> lockProvider.lock(ACCOUNT_NUMBER, 5000L, 15000L, "test")).get();
+
+        try {
+            // when
+            Future<AccountException> second = executor.submit(() -> {
+                AccountException exception = assertThrows(AccountException.class,
+                    () -> lockProvider.lock(ACCOUNT_NUMBER, 100L, 15000L, "test"));
+                assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+                return exception;
+            });
+
+            // then
+            assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, second.get(5, TimeUnit.SECONDS).getErrorCode());
+        } finally {
+            unlockOnHolder();
+        }
+    }
+
+    @DisplayName("없는 계좌를 여러 스레드가 동시에 잠가도 각자 자기 트랜잭션을 끝낸다")
+    @Test
+    void unknownAccountConcurrentLocks() throws Exception {
+        // given - 잠글 행이 없어 두 스레드가 동시에 락을 잡는다
+        CyclicBarrier bothLocked = new CyclicBarrier(2);
+        Runnable task = () -> {
+            try {
+                lockProvider.lock("9999999999", 5000L, 15000L, "test");
+                bothLocked.await(5, TimeUnit.SECONDS);
+                lockProvider.unlock("9999999999");
+                assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+                assertFalse(TransactionSynchronizationManager.hasResource(entityManagerFactory));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+
+        // when
+        Future<?> first = executor.submit(task);
+        Future<?> second = executor.submit(task);
+
+        // then
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+    }
+
+    @DisplayName("보호된 작업이 rollback-only 로 표시하면 unlock 에서 롤백한다")
+    @Test
+    void rollbackOnlyIsRolledBack() throws Exception {
+        // given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // when
+        executor.submit(() -> {
+            lockProvider.lock(ACCOUNT_NUMBER, 5000L, 15000L, "test");
+            try {
+                // 서비스의 @Transactional 처럼 락 트랜잭션에 참여한다
+                transactionTemplate.executeWithoutResult(status -> {
+                    accountUserRepository.save(new AccountUser("lockRolledBack"));
+                    status.setRollbackOnly();
+                });
+            } finally {
+                lockProvider.unlock(ACCOUNT_NUMBER);
+            }
+        }).get(5, TimeUnit.SECONDS);
+
+        // then
+        assertFalse(accountUserRepository.findAll().stream()
+            .anyMatch(user -> user.getUserName().equals("lockRolledBack")));
+    }
+
+    private void unlockOnHolder() throws Exception {
+        holder.submit(() -> {
+            lockProvider.unlock(ACCOUNT_NUMBER);
+            return null;
+        }).get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.account.service;
+
+import com.example.account.dto.FailedTransaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.example.account.type.TransactionType.CANCEL;
+import static com.example.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class FailedTransactionRecorderTest {
+
+    @Mock
+    private TransactionService transactionService;
+
+    @TempDir
+    private Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @DisplayName("기록한 실패 거래는 백그라운드에서 모아서 저장된다")
+    @Test
+    void recordAndWriteInBatch() throws Exception {
+        // given
+        FailedTransactionRecorder recorder = recorder(100);
+        ArgumentCaptor<List<FailedTransaction>> batchCaptor = ArgumentCaptor.forClass(List.class);
+
+        // when
+        recorder.record("1000000012", 1000L, USE);
+        recorder.record("1000000012", 2000L, CANCEL);
+        recorder.shutdown();
+
+        // then
+        verify(transactionService, timeout(2000).atLeastOnce()).saveFailedTransactions(batchCaptor.capture());
+        assertEquals(2, batchCaptor.getAllValues().stream().mapToInt(List::size).sum());
+        assertFalse(Files.exists(tempDir.resolve("failed.ndjson")));
+    }
+
+    @DisplayName("저장에 실패하면 파일에 남기고, 다음 기동 때 다시 저장한다")
+    @Test
+    void spillAndReplay() throws Exception {
+        // given
+        willThrow(new IllegalStateException("db down"))
+            .given(transactionService).saveFailedTransactions(anyList());
+        FailedTransactionRecorder failing = recorder(100);
+        failing.record("1000000012", 1000L, USE);
+        failing.shutdown();
+        assertTrue(Files.exists(tempDir.resolve("failed.ndjson")));
+
+        // when
+        reset(transactionService);
+        FailedTransactionRecorder restarted = recorder(100);
+        ArgumentCaptor<List<FailedTransaction>> batchCaptor = ArgumentCaptor.forClass(List.class);
+
+        // then
+        verify(transactionService, timeout(2000)).saveFailedTransactions(batchCaptor.capture());
+        restarted.shutdown();
+        assertEquals("1000000012", batchCaptor.getValue().get(0).accountNumber());
+        assertEquals(USE, batchCaptor.getValue().get(0).transactionType());
+        assertFalse(Files.exists(tempDir.resolve("failed.ndjson.replay")));
+    }
+
+    @DisplayName("실패 거래는 호출한 쪽이 넘긴 잔액과 기록 시점에 정한 거래 ID 로 저장된다")
+    @Test
+    void balanceSnapshotAtRecord() throws Exception {
+        // given
+        FailedTransactionRecorder recorder = recorder(100);
+        ArgumentCaptor<List<FailedTransaction>> batchCaptor = ArgumentCaptor.forClass(List.class);
+
+        // when
+        recorder.record("1000000012", 1000L, USE, 9000L);
+        recorder.shutdown();
+
+        // then
+        verify(transactionService, timeout(2000)).saveFailedTransactions(batchCaptor.capture());
+        assertEquals(9000L, batchCaptor.getValue().get(0).balanceSnapshot());
+        assertNotNull(batchCaptor.getValue().get(0).transactionId());
+    }
+
+    @DisplayName("임시 파일에 읽을 수 없는 줄이 있으면 .corrupt 파일로 옮기고 나머지는 저장한 뒤 파일을 지운다")
+    @Test
+    void replayWithCorruptLine() throws Exception {
+        // given - 기록 도중 죽어서 잘린 줄이 중간에 섞여 있다
+        Path spillFile = tempDir.resolve("failed.ndjson");
+        LocalDateTime failedAt = LocalDateTime.now();
+        String first = objectMapper.writeValueAsString(
+            new FailedTransaction("transactionId1", "1000000012", 1000L, USE, 9000L, failedAt));
+        String second = objectMapper.writeValueAsString(
+            new FailedTransaction("transactionId2", "1000000012", 2000L, CANCEL, 9000L, failedAt));
+        String torn = second.substring(0, second.length() / 2);
+        Files.writeString(spillFile, first + "\n" + torn + "\n" + second + "\n");
+        ArgumentCaptor<List<FailedTransaction>> batchCaptor = ArgumentCaptor.forClass(List.class);
+
+        // when
+        FailedTransactionRecorder recorder = recorder(100);
+
+        // then
+        verify(transactionService, timeout(2000)).saveFailedTransactions(batchCaptor.capture());
+        recorder.shutdown();
+        assertEquals(List.of("transactionId1", "transactionId2"),
+            batchCaptor.getValue().stream().map(FailedTransaction::transactionId).toList());
+        assertEquals(List.of(torn), Files.readAllLines(tempDir.resolve("failed.ndjson.corrupt")));
+        assertFalse(Files.exists(tempDir.resolve("failed.ndjson.replay")));
+        assertFalse(Files.exists(spillFile));
+    }
+
+    @DisplayName("저장에 실패한 거래는 재기동을 기다리지 않고 작업자가 다시 저장한다")
+    @Test
+    void retryWithoutRestart() throws Exception {
+        // given - 첫 저장만 실패한다
+        willThrow(new IllegalStateException("db down"))
+            .willDoNothing()
+            .given(transactionService).saveFailedTransactions(anyList());
+        FailedTransactionRecorder recorder = recorder(100, 100L);
+
+        // when
+        recorder.record("1000000012", 1000L, USE);
+
+        // then
+        verify(transactionService, timeout(2000).times(2)).saveFailedTransactions(anyList());
+        recorder.shutdown();
+        assertFalse(Files.exists(tempDir.resolve("failed.ndjson")));
+        assertFalse(Files.exists(tempDir.resolve("failed.ndjson.replay")));
+    }
+
+    @DisplayName("대기열이 가득 차면 요청 스레드를 붙잡지 않고 파일로 넘긴다")
+    @Test
+    void spillWhenQueueFull() throws Exception {
+        // given - 작업자를 시작하지 않아 대기열이 비워지지 않는다
+        FailedTransactionRecorder recorder = new FailedTransactionRecorder(transactionService,
+            new SnowflakeTransactionIdGenerator(1), new BackgroundThreads(false), objectMapper,
+            new SimpleMeterRegistry(), 1, 10, 50L, 1L, 30000L, tempDir.resolve("failed.ndjson").toString());
+
+        // when
+        recorder.record("1000000012", 1000L, USE);
+        recorder.record("1000000012", 2000L, USE);
+
+        // then
+        List<String> lines = Files.readAllLines(tempDir.resolve("failed.ndjson"));
+        assertEquals(1, lines.size());
+        assertEquals(2000L, objectMapper.readValue(lines.get(0), FailedTransaction.class).amount());
+    }
+
+    private FailedTransactionRecorder recorder(int capacity) {
+        return recorder(capacity, 30000L);
+    }
+
+    private FailedTransactionRecorder recorder(int capacity, long retryIntervalMillis) {
+        FailedTransactionRecorder recorder = new FailedTransactionRecorder(transactionService,
+            new SnowflakeTransactionIdGenerator(1), new BackgroundThreads(false), objectMapper,
+            new SimpleMeterRegistry(), capacity, 10, 50L, 10L, retryIntervalMillis, tempDir.resolve("failed.ndjson").toString());
+        recorder.start();
+        return recorder;
+    }
+}
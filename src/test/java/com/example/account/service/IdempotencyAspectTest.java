@@ -0,0 +1,368 @@
+package com.example.account.service;
+
+import com.example.account.dto.IdempotentResponse;
+import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.exception.ErrorCode;
+import com.example.account.type.IdempotencyFallback;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.client.RedisTimeoutException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyAspectTest {
+
+    private static final String KEY = "/transaction/use:key-1";
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+
+    @Mock
+    private MethodSignature methodSignature;
+
+    private IdempotencyAspect idempotencyAspect;
+
+    private final UseBalance.Request request = new UseBalance.Request(1L, "1000000000", 1000L);
+
+    @BeforeEach
+    void setUp() {
+        idempotencyAspect = idempotencyAspect(IdempotencyFallback.REJECT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @DisplayName("Idempotency-Key 가 없으면 저장소를 거치지 않고 실행한다")
+    @Test
+    void withoutKey() throws Throwable {
+        // given
+        bindRequest(null);
+        UseBalance.Response response = new UseBalance.Response();
+        given(proceedingJoinPoint.proceed()).willReturn(response);
+
+        // when
+        Object result = idempotencyAspect.aroundMethod(proceedingJoinPoint, request);
+
+        // then
+        assertSame(response, result);
+        verifyNoInteractions(idempotencyStore);
+    }
+
+    @DisplayName("처음 요청은 실행 후 응답을 저장한다")
+    @Test
+    void firstRequest_storesResponse() throws Throwable {
+        // given
+        bindRequest("key-1");
+        UseBalance.Response response = new UseBalance.Response();
+        given(proceedingJoinPoint.getSignature()).willReturn(methodSignature);
+        given(methodSignature.getMethod()).willReturn(endpoint("useBalance"));
+        given(idempotencyStore.begin(eq(KEY), anyString())).willReturn(null);
+        given(proceedingJoinPoint.proceed()).willReturn(response);
+
+        // when
+        Object result = idempotencyAspect.aroundMethod(proceedingJoinPoint, request);
+
+        // then
+        assertSame(response, result);
+        verify(idempotencyStore).complete(eq(KEY), anyString(), eq(response));
+    }
+
+    @DisplayName("이미 처리된 키는 저장된 응답을 돌려주고 실행하지 않는다")
+    @Test
+    void duplicate_replaysStoredResponse() throws Throwable {
+        // given
+        bindRequest("key-1");
+        UseBalance.Response stored = new UseBalance.Response();
+        given(proceedingJoinPoint.getSignature()).willReturn(methodSignature);
+        given(methodSignature.getMethod()).willReturn(endpoint("useBalance"));
+        given(idempotencyStore.begin(eq(KEY), anyString()))
+            .willAnswer(invocation -> new IdempotentResponse(invocation.getArgument(1), "{}"));
+        given(idempotencyStore.readBody(any(), eq(UseBalance.Response.class))).willReturn(stored);
+
+        // when
+        Object result = idempotencyAspect.aroundMethod(proceedingJoinPoint, request);
+
+        // then
+        assertSame(stored, result);
+        verify(proceedingJoinPoint, never()).proceed();
+    }
+
+    @DisplayName("같은 키를 다른 요청 본문에 쓰면 실패한다")
+    @Test
+    void duplicate_differentBody() throws Throwable {
+        // given
+        bindRequest("key-1");
+        given(proceedingJoinPoint.getSignature()).willReturn(methodSignature);
+        given(methodSignature.getMethod()).willReturn(endpoint("useBalance"));
+        given(idempotencyStore.begin(eq(KEY), anyString()))
+            .willReturn(new IdempotentResponse("other-fingerprint", "{}"));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> idempotencyAspect.aroundMethod(proceedingJoinPoint, request));
+
+        // then
+        assertEquals(ErrorCode.IDEMPOTENCY_KEY_REUSED, exception.getErrorCode());
+        verify(proceedingJoinPoint, never()).proceed();
+    }
+
+    @DisplayName("실패한 요청은 저장하지 않고 PENDING 을 지운다")
+    @Test
+    void failedRequest_aborts() throws Throwable {
+        // given
+        bindRequest("key-1");
+        given(proceedingJoinPoint.getSignature()).willReturn(methodSignature);
+        given(methodSignature.getMethod()).willReturn(endpoint("useBalance"));
+        given(idempotencyStore.begin(eq(KEY), anyString())).willReturn(null);
+        given(proceedingJoinPoint.proceed())
+            .willThrow(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+
+        // when
+        assertThrows(AccountException.class,
+            () -> idempotencyAspect.aroundMethod(proceedingJoinPoint, request));
+
+        // then
+        verify(idempotencyStore).abort(KEY);
+        verify(idempotencyStore, never()).complete(anyString(), anyString(), any());
+    }
+
+    @DisplayName("응답 저장에 실패하면 재시도가 다시 실행되지 않도록 PENDING 을 남긴다")
+    @Test
+    void completeFailed_keepsPending() throws Throwable {
+        // given
+        bindRequest("key-1");
+        UseBalance.Response response = new UseBalance.Response();
+        given(proceedingJoinPoint.getSignature()).willReturn(methodSignature);
+        given(methodSignature.getMethod()).willReturn(endpoint("useBalance"));
+        given(idempotencyStore.begin(eq(KEY), anyString())).willReturn(null);
+        given(proceedingJoinPoint.proceed()).willReturn(response);
+        willThrow(new RedisTimeoutException("timeout"))
+            .given(idempotencyStore).complete(eq(KEY), anyString(), eq(response));
+
+        // when
+        Object result = idempotencyAspect.aroundMethod(proceedingJoinPoint, request);
+
+        // then
+        assertSame(response, result);
+        verify(idempotencyStore).keepPending(KEY);
+        verify(idempotencyStore, never()).abort(anyString());
+    }
+
+    @DisplayName("저장소 장애 시 REJECT 정책이면 실행하지 않고 거절한다")
+    @Test
+    void storeUnavailable_reject() throws Throwable {
+        // given
+        bindRequest("key-1");
+        given(proceedingJoinPoint.getSignature()).willReturn(methodSignature);
+        given(methodSignature.getMethod()).willReturn(endpoint("useBalance"));
+        given(idempotencyStore.begin(eq(KEY), anyString()))
+            .willThrow(new RedisTimeoutException("timeout"));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> idempotencyAspect.aroundMethod(proceedingJoinPoint, request));
+
+        // then
+        assertEquals(ErrorCode.IDEMPOTENCY_STORE_UNAVAILABLE, exception.getErrorCode());
+        verify(proceedingJoinPoint, never()).proceed();
+    }
+
+    @DisplayName("저장소 장애 시 PROCEED 정책이면 키 없이 실행한다")
+    @Test
+    void storeUnavailable_proceed() throws Throwable {
+        // given
+        idempotencyAspect = idempotencyAspect(IdempotencyFallback.PROCEED);
+        bindRequest("key-1");
+        UseBalance.Response response = new UseBalance.Response();
+        given(proceedingJoinPoint.getSignature()).willReturn(methodSignature);
+        given(methodSignature.getMethod()).willReturn(endpoint("useBalance"));
+        given(idempotencyStore.begin(eq(KEY), anyString()))
+            .willThrow(new RedisTimeoutException("timeout"));
+        given(proceedingJoinPoint.proceed()).willReturn(response);
+
+        // when
+        Object result = idempotencyAspect.aroundMethod(proceedingJoinPoint, request);
+
+        // then
+        assertSame(response, result);
+        verify(idempotencyStore, never()).complete(anyString(), anyString(), any());
+    }
+
+    @DisplayName("같은 노드에서 동시에 들어온 중복 요청은 먼저 들어온 실행 결과를 같이 받는다")
+    @Test
+    void concurrentDuplicates_coalesce() throws Throwable {
+        // given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        UseBalance.Response response = new UseBalance.Response();
+        given(proceedingJoinPoint.getSignature()).willReturn(methodSignature);
+        given(methodSignature.getMethod()).willReturn(endpoint("useBalance"));
+        given(idempotencyStore.begin(eq(KEY), anyString())).willReturn(null);
+        given(proceedingJoinPoint.proceed()).willAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return response;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // when
+            Future<Object> first = executor.submit(() -> callWithKey("key-1"));
+            started.await(5, TimeUnit.SECONDS);
+            Future<Object> second = executor.submit(() -> callWithKey("key-1"));
+            Thread.sleep(100);
+            release.countDown();
+
+            // then
+            assertSame(response, first.get(5, TimeUnit.SECONDS));
+            assertSame(response, second.get(5, TimeUnit.SECONDS));
+            verify(proceedingJoinPoint, times(1)).proceed();
+            verify(idempotencyStore, times(1)).begin(eq(KEY), anyString());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @DisplayName("비동기 응답은 거래가 끝난 뒤 future 안의 값을 저장한다")
+    @Test
+    void asyncRequest_storesResponseAfterCompletion() throws Throwable {
+        // given
+        bindRequest("key-1");
+        UseBalance.Response response = new UseBalance.Response();
+        CompletableFuture<UseBalance.Response> pending = new CompletableFuture<>();
+        given(proceedingJoinPoint.getSignature()).willReturn(methodSignature);
+        given(methodSignature.getMethod()).willReturn(endpoint("useBalanceAsync"));
+        given(idempotencyStore.begin(eq(KEY), anyString())).willReturn(null);
+        given(proceedingJoinPoint.proceed()).willReturn(pending);
+
+        // when
+        CompletableFuture<?> result = (CompletableFuture<?>) idempotencyAspect.aroundMethod(proceedingJoinPoint, request);
+        verify(idempotencyStore, never()).complete(anyString(), anyString(), any());
+        pending.complete(response);
+
+        // then
+        assertSame(response, result.get(5, TimeUnit.SECONDS));
+        verify(idempotencyStore).complete(eq(KEY), anyString(), eq(response));
+    }
+
+    @DisplayName("비동기 요청이 실패하면 저장하지 않고 PENDING 을 지운다")
+    @Test
+    void asyncRequest_failedAborts() throws Throwable {
+        // given
+        bindRequest("key-1");
+        given(proceedingJoinPoint.getSignature()).willReturn(methodSignature);
+        given(methodSignature.getMethod()).willReturn(endpoint("useBalanceAsync"));
+        given(idempotencyStore.begin(eq(KEY), anyString())).willReturn(null);
+        given(proceedingJoinPoint.proceed())
+            .willReturn(CompletableFuture.failedFuture(new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE)));
+
+        // when
+        CompletableFuture<?> result = (CompletableFuture<?>) idempotencyAspect.aroundMethod(proceedingJoinPoint, request);
+
+        // then
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, ((AccountException) exception.getCause()).getErrorCode());
+        verify(idempotencyStore).abort(KEY);
+        verify(idempotencyStore, never()).complete(anyString(), anyString(), any());
+    }
+
+    @DisplayName("비동기 엔드포인트의 이미 처리된 키는 저장된 응답을 완료된 future 로 돌려준다")
+    @Test
+    void asyncDuplicate_replaysStoredResponse() throws Throwable {
+        // given
+        bindRequest("key-1");
+        UseBalance.Response stored = new UseBalance.Response();
+        given(proceedingJoinPoint.getSignature()).willReturn(methodSignature);
+        given(methodSignature.getMethod()).willReturn(endpoint("useBalanceAsync"));
+        given(idempotencyStore.begin(eq(KEY), anyString()))
+            .willAnswer(invocation -> new IdempotentResponse(invocation.getArgument(1), "{}"));
+        given(idempotencyStore.readBody(any(), eq(UseBalance.Response.class))).willReturn(stored);
+
+        // when
+        Object result = idempotencyAspect.aroundMethod(proceedingJoinPoint, request);
+
+        // then
+        assertSame(stored, ((CompletableFuture<?>) result).get(5, TimeUnit.SECONDS));
+        verify(proceedingJoinPoint, never()).proceed();
+    }
+
+    private Object callWithKey(String idempotencyKey) throws Exception {
+        bindRequest(idempotencyKey);
+        try {
+            return idempotencyAspect.aroundMethod(proceedingJoinPoint, request);
+        } catch (Exception e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private IdempotencyAspect idempotencyAspect(IdempotencyFallback fallback) {
+        return new IdempotencyAspect(
+            idempotencyStore, new ObjectMapper(), new SimpleMeterRegistry(), Duration.ofSeconds(5), fallback);
+    }
+
+    private static Method endpoint(String name) {
+        try {
+            return Endpoints.class.getDeclaredMethod(name);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void bindRequest(String idempotencyKey) {
+        MockHttpServletRequest httpRequest = new MockHttpServletRequest("POST", "/transaction/use");
+        if (idempotencyKey != null) {
+            httpRequest.addHeader(IdempotencyAspect.HEADER, idempotencyKey);
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(httpRequest));
+    }
+
+    private interface Endpoints {
+        UseBalance.Response useBalance();
+
+        CompletableFuture<UseBalance.Response> useBalanceAsync();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.account.service;
+
+import com.example.account.type.CircuitState;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisTimeoutException;
+import org.redisson.client.codec.Codec;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+    private static final String KEY = "/transaction/use:key-1";
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RBucket<String> bucket;
+
+    private final RedisCircuitBreaker circuitBreaker =
+        new RedisCircuitBreaker("idempotency", new SimpleMeterRegistry(), 2, Duration.ofMinutes(1));
+
+    @DisplayName("Redis circuit 이 열려 있으면 Redis 를 호출하지 않고 바로 실패한다")
+    @Test
+    void circuitOpenFailsFast() {
+        // given
+        IdempotencyStore idempotencyStore = idempotencyStore();
+        given(redissonClient.<String>getBucket(anyString(), any(Codec.class)))
+            .willReturn(bucket);
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+
+        // when
+        // then
+        assertThrows(RedisCircuitBreaker.CircuitOpenException.class,
+            () -> idempotencyStore.begin(KEY, "fingerprint"));
+        verifyNoInteractions(bucket);
+    }
+
+    @DisplayName("응답 저장 실패는 circuit 에 실패로 쌓이고, OPEN 이 되면 더 시도하지 않는다")
+    @Test
+    void completeFailuresOpenCircuit() {
+        // given
+        IdempotencyStore idempotencyStore = idempotencyStore();
+        given(redissonClient.<String>getBucket(anyString(), any(Codec.class)))
+            .willReturn(bucket);
+        willThrow(new RedisTimeoutException("timeout"))
+            .given(bucket).set(anyString(), anyLong(), any(TimeUnit.class));
+
+        // when
+        assertThrows(RedisCircuitBreaker.CircuitOpenException.class,
+            () -> idempotencyStore.complete(KEY, "fingerprint", "response"));
+
+        // then - 3번 중 2번 실패로 OPEN, 세 번째는 Redis 를 호출하지 않는다
+        verify(bucket, times(2)).set(anyString(), anyLong(), any(TimeUnit.class));
+        assertEquals(CircuitState.OPEN, circuitBreaker.getState());
+    }
+
+    private IdempotencyStore idempotencyStore() {
+        return new IdempotencyStore(redissonClient, new ObjectMapper(), circuitBreaker,
+            Duration.ofHours(24), Duration.ofMinutes(2), 3, 60000L);
+    }
+}
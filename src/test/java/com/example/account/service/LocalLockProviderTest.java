@@ -0,0 +1,74 @@
+package com.example.account.service;
+
+import com.example.account.exception.AccountException;
+import com.example.account.exception.ErrorCode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LocalLockProviderTest {
+
+    private final LocalLockProvider lockProvider = new LocalLockProvider(new LocalLockRegistry(16));
+
+    @DisplayName("같은 계좌는 한 스레드씩만 처리한다")
+    @Test
+    void mutualExclusion() throws Exception {
+        // given
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        // when
+        Future<?>[] futures = new Future<?>[threads];
+        for (int i = 0; i < threads; i++) {
+            futures[i] = executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < 50; j++) {
+                    lockProvider.lock("1000000000", 5000L, 15000L, "test");
+                    try {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        running.decrementAndGet();
+                    } finally {
+                        lockProvider.unlock("1000000000");
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdownNow();
+
+        // then
+        assertEquals(1, maxRunning.get());
+    }
+
+    @DisplayName("대기 시간 안에 락을 얻지 못하면 실패한다")
+    @Test
+    void lockTimeout() throws Exception {
+        // given
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.submit(() -> lockProvider.lock("1000000000", 0L, 15000L, "test")).get();
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> lockProvider.lock("1000000000", 10L, 15000L, "test"));
+
+        // then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        executor.shutdownNow();
+    }
+}
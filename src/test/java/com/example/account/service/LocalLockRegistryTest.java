@@ -0,0 +1,100 @@
+package com.example.account.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalLockRegistryTest {
+
+    @DisplayName("대기열 길이는 stripe 를 공유하는 다른 계좌의 대기자를 세지 않는다")
+    @Test
+    void queueLengthPerAccount() throws Exception {
+        // given - stripe 가 하나라 모든 계좌가 같은 락을 쓴다
+        LocalLockRegistry registry = new LocalLockRegistry(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            executor.submit(() -> registry.tryLock("1000000001", 0, TimeUnit.SECONDS)).get();
+
+            // when
+            Future<Boolean> waiting = executor.submit(() -> registry.tryLock("1000000002", 300, TimeUnit.MILLISECONDS));
+            Thread.sleep(100L);
+
+            // then
+            assertEquals(1, registry.getQueueLength("1000000002"));
+            assertEquals(0, registry.getQueueLength("1000000001"));
+            assertFalse(waiting.get(5, TimeUnit.SECONDS));
+            assertEquals(0, registry.getQueueLength("1000000002"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void lockAndUnlock() throws Exception {
+        // given
+        LocalLockRegistry registry = new LocalLockRegistry(16);
+        assertTrue(registry.tryLock("1000000001", 0, TimeUnit.SECONDS));
+
+        // when
+        registry.unlock("1000000001");
+
+        // then
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        assertTrue(executor.submit(() -> registry.tryLock("1000000001", 0, TimeUnit.SECONDS)).get());
+        executor.shutdownNow();
+    }
+
+    @DisplayName("같은 stripe 의 다른 계좌를 잡은 스레드는 이 계좌를 풀 수 없다")
+    @Test
+    void unlockOnlyOwnedAccount() throws Exception {
+        // given - stripe 가 하나라 두 계좌가 같은 락을 쓴다
+        LocalLockRegistry registry = new LocalLockRegistry(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertTrue(registry.tryLock("1000000001", 0, TimeUnit.SECONDS));
+
+            // when - 1000000001 만 잡은 스레드가 1000000002 를 푼다
+            registry.unlock("1000000002");
+
+            // then - stripe 는 여전히 잡혀 있다
+            assertFalse(executor.submit(() -> registry.tryLock("1000000002", 0, TimeUnit.SECONDS)).get());
+
+            registry.unlock("1000000001");
+            assertTrue(executor.submit(() -> registry.tryLock("1000000002", 0, TimeUnit.SECONDS)).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @DisplayName("같은 stripe 의 두 계좌를 잡으면 둘 다 풀어야 stripe 가 풀린다")
+    @Test
+    void unlockPerAccountOnSharedStripe() throws Exception {
+        // given
+        LocalLockRegistry registry = new LocalLockRegistry(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertTrue(registry.tryLock("1000000001", 0, TimeUnit.SECONDS));
+            assertTrue(registry.tryLock("1000000002", 0, TimeUnit.SECONDS));
+
+            // when - 같은 계좌를 두 번 푼다
+            registry.unlock("1000000001");
+            registry.unlock("1000000001");
+
+            // then - 두 번째 해제는 무시되고 1000000002 를 쥐고 있으므로 stripe 는 잡혀 있다
+            assertFalse(executor.submit(() -> registry.tryLock("1000000003", 0, TimeUnit.SECONDS)).get());
+
+            registry.unlock("1000000002");
+            assertTrue(executor.submit(() -> registry.tryLock("1000000003", 0, TimeUnit.SECONDS)).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,22 +1,32 @@
 package com.example.account.service;
 
+import com.example.account.aop.AccountLock;
 import com.example.account.dto.UseBalance;
 import com.example.account.exception.AccountException;
 import com.example.account.exception.ErrorCode;
+import com.example.account.type.TransactionConcurrencyMode;
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import static com.example.account.exception.ErrorCode.ACCOUNT_NOT_FOUND;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.internal.verification.VerificationModeFactory.times;
 
@@ -24,14 +34,28 @@ import static org.mockito.internal.verification.VerificationModeFactory.times;
 class LockAopAspectTest {
 
     @Mock
-    private LockService lockService;
+    private LockProvider lockProvider;
+
+    @Mock
+    private AccountMailboxExecutor accountMailboxExecutor;
 
     @Mock
     private ProceedingJoinPoint proceedingJoinPoint;
 
-    @InjectMocks
+    @Mock
+    private Signature signature;
+
+    private AccountConcurrencyGuard accountConcurrencyGuard;
+
     private LockAopAspect lockAopAspect;
 
+    private final AccountLock accountLock = lockedEndpoint();
+
+    @BeforeEach
+    void setUp() {
+        accountConcurrencyGuard = new AccountConcurrencyGuard(lockProvider, accountMailboxExecutor);
+        lockAopAspect = new LockAopAspect(accountConcurrencyGuard);
+    }
 
     @Test
     void lockAndUnlock() throws Throwable {
@@ -41,14 +65,15 @@ class LockAopAspectTest {
 
         UseBalance.Request request =
             new UseBalance.Request(123L, "1234", 1000L);
+        givenSignature();
 
         // when
-        lockAopAspect.aroundMethod(proceedingJoinPoint, request);
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
 
         // then
-        verify(lockService, times(1))
-            .lock(lockCaptor.capture());
-        verify(lockService, times(1))
+        verify(lockProvider, times(1))
+            .lock(lockCaptor.capture(), eq(3000L), eq(20000L), eq("TransactionController.useBalance(..)"));
+        verify(lockProvider, times(1))
             .unlock(unLockCaptor.capture());
         assertEquals("1234", lockCaptor.getValue());
         assertEquals("1234", unLockCaptor.getValue());
@@ -64,20 +89,105 @@ class LockAopAspectTest {
         UseBalance.Request request =
             new UseBalance.Request(123L, "1234", 1000L);
 
+        givenSignature();
         given(proceedingJoinPoint.proceed())
             .willThrow(new AccountException(ACCOUNT_NOT_FOUND));
 
         // when
         assertThrows(AccountException.class, () ->
-            lockAopAspect.aroundMethod(proceedingJoinPoint, request));
+            lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request));
 
         // then
-        verify(lockService, times(1))
-            .lock(lockCaptor.capture());
-        verify(lockService, times(1))
+        verify(lockProvider, times(1))
+            .lock(lockCaptor.capture(), eq(3000L), eq(20000L), eq("TransactionController.useBalance(..)"));
+        verify(lockProvider, times(1))
             .unlock(unLockCaptor.capture());
         assertEquals("1234", lockCaptor.getValue());
         assertEquals("1234", unLockCaptor.getValue());
 
     }
-}
\ No newline at end of file
+
+    @DisplayName("QUEUE 모드에서는 락 대신 계좌 대기열로 처리한다")
+    @Test
+    void executeInMailbox_whenQueueMode() throws Throwable {
+        // given
+        ReflectionTestUtils.setField(accountConcurrencyGuard, "concurrencyMode", TransactionConcurrencyMode.QUEUE);
+        UseBalance.Request request =
+            new UseBalance.Request(123L, "1234", 1000L);
+        givenSignature();
+
+        // when
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
+
+        // then
+        verify(accountMailboxExecutor, times(1)).execute(eq("1234"), any());
+        verify(lockProvider, never()).lock(anyString(), anyLong(), anyLong(), anyString());
+    }
+
+    @DisplayName("OPTIMISTIC 모드에서는 락 없이 실행하고 충돌 시 재시도한다")
+    @Test
+    void retryOnOptimisticConflict() throws Throwable {
+        // given
+        ReflectionTestUtils.setField(accountConcurrencyGuard, "concurrencyMode", TransactionConcurrencyMode.OPTIMISTIC);
+        ReflectionTestUtils.setField(accountConcurrencyGuard, "optimisticBackoffMillis", 0L);
+        UseBalance.Request request =
+            new UseBalance.Request(123L, "1234", 1000L);
+        givenSignature();
+
+        given(proceedingJoinPoint.proceed())
+            .willThrow(new OptimisticLockingFailureException("conflict"))
+            .willReturn("done");
+
+        // when
+        Object result = lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
+
+        // then
+        assertEquals("done", result);
+        verify(proceedingJoinPoint, times(2)).proceed();
+        verify(lockProvider, never()).lock(anyString(), anyLong(), anyLong(), anyString());
+    }
+
+    @DisplayName("OPTIMISTIC 모드 재시도 횟수를 넘기면 락 오류로 실패한다")
+    @Test
+    void failWhenOptimisticRetryExhausted() throws Throwable {
+        // given
+        ReflectionTestUtils.setField(accountConcurrencyGuard, "concurrencyMode", TransactionConcurrencyMode.OPTIMISTIC);
+        ReflectionTestUtils.setField(accountConcurrencyGuard, "optimisticBackoffMillis", 0L);
+        ReflectionTestUtils.setField(accountConcurrencyGuard, "optimisticMaxAttempts", 3);
+        UseBalance.Request request =
+            new UseBalance.Request(123L, "1234", 1000L);
+        givenSignature();
+
+        given(proceedingJoinPoint.proceed())
+            .willThrow(new OptimisticLockingFailureException("conflict"));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class, () ->
+            lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request));
+
+        // then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        verify(proceedingJoinPoint, times(3)).proceed();
+    }
+
+    private void givenSignature() {
+        given(proceedingJoinPoint.getSignature())
+            .willReturn(signature);
+        given(signature.toShortString())
+            .willReturn("TransactionController.useBalance(..)");
+    }
+
+    private static AccountLock lockedEndpoint() {
+        try {
+            return LockedEndpoint.class.getDeclaredMethod("useBalance").getAnnotation(AccountLock.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class LockedEndpoint {
+        @AccountLock(tryLockTime = 3000L, leaseTime = 20000L)
+        void useBalance() {
+        }
+    }
+}
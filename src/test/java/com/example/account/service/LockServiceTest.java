@@ -2,21 +2,40 @@ package com.example.account.service;
 
 import com.example.account.exception.AccountException;
 import com.example.account.exception.ErrorCode;
+import com.example.account.type.CircuitState;
+import com.example.account.type.RedisLockFallback;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.redisson.Redisson;
+import org.redisson.api.RFuture;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisTimeoutException;
 import org.redisson.client.RedisClient;
 import org.springframework.cglib.core.Block;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class LockServiceTest {
@@ -27,9 +46,26 @@ class LockServiceTest {
     @Mock
     private RLock rLock;
 
-    @InjectMocks
+    @Spy
+    private LocalLockRegistry localLockRegistry = new LocalLockRegistry(16);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RedisCircuitBreaker circuitBreaker =
+        new RedisCircuitBreaker("lock", meterRegistry, 2, Duration.ofSeconds(10));
+
     private LockService lockService;
 
+    @BeforeEach
+    void setUp() {
+        lockService = lockService(RedisLockFallback.REJECT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        lockService.shutdown();
+    }
+
     @Test
     void successGetLock() throws InterruptedException {
         // given
@@ -45,7 +81,7 @@ class LockServiceTest {
     }
 
     @Test
-    void failGetLock() throws InterruptedException {
+    void failGetLock() throws Exception {
         // given
         given(redissonClient.getLock(anyString()))
             .willReturn(rLock);
@@ -57,6 +93,293 @@ class LockServiceTest {
         AccountException exception = assertThrows(AccountException.class, () -> lockService.lock("123"));
         // then
         assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        assertTrue(executor.submit(() -> localLockRegistry.tryLock("123", 0, TimeUnit.SECONDS)).get());
+        executor.shutdownNow();
+    }
+
+    @DisplayName("같은 노드에서 이미 잡힌 계좌는 Redis 락을 시도하지 않는다")
+    @Test
+    void failGetLocalLock() throws Exception {
+        // given
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.submit(() -> localLockRegistry.tryLock("123", 1, TimeUnit.SECONDS)).get();
+
+        // when
+        AccountException exception = assertThrows(AccountException.class, () -> lockService.lock("123"));
+
+        // then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        verify(redissonClient, never()).getLock(anyString());
+        executor.shutdownNow();
+    }
+
+    @Test
+    void unlockReleasesLocalLock() throws Exception {
+        // given
+        given(redissonClient.getLock(anyString()))
+            .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+            .willReturn(true);
+        lockService.lock("123");
+
+        // when
+        lockService.unlock("123");
+
+        // then
+        verify(rLock).unlock();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        assertTrue(executor.submit(() -> localLockRegistry.tryLock("123", 0, TimeUnit.SECONDS)).get());
+        executor.shutdownNow();
+    }
+
+    @DisplayName("엔드포인트별 대기 시간으로 락을 잡고, lease 는 Redisson watchdog 에 맡기며 대기 시간을 기록한다")
+    @Test
+    void lockWithEndpointPolicy() throws Exception {
+        // given
+        given(redissonClient.getLock(anyString()))
+            .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+            .willReturn(true);
+
+        // when
+        lockService.lock("123", 3000L, 20000L, "useBalance");
+        lockService.unlock("123");
+
+        // then
+        verify(rLock).tryLock(longThat(wait -> wait <= 3000L && wait > 2000L), eq(-1L), eq(TimeUnit.MILLISECONDS));
+        assertEquals(1, meterRegistry.get("account.lock.wait")
+            .tag("endpoint", "useBalance").tag("result", "acquired").timer().count());
+        assertEquals(1, meterRegistry.get("account.lock.hold")
+            .tag("endpoint", "useBalance").timer().count());
+    }
+
+    @DisplayName("락을 잡고 풀 때마다 meter 를 새로 등록하지 않고 엔드포인트별로 재사용한다")
+    @Test
+    void reuseMetersPerEndpoint() throws Exception {
+        // given
+        given(redissonClient.getLock(anyString()))
+            .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+            .willReturn(true);
+        lockService.lock("123", 3000L, 20000L, "useBalance");
+        lockService.unlock("123");
+        int meterCount = meterRegistry.getMeters().size();
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            lockService.lock("123", 3000L, 20000L, "useBalance");
+            lockService.unlock("123");
+        }
+
+        // then
+        assertEquals(meterCount, meterRegistry.getMeters().size());
+        assertEquals(11, meterRegistry.get("account.lock.wait")
+            .tag("endpoint", "useBalance").tag("result", "acquired").timer().count());
+        assertEquals(11, meterRegistry.get("account.lock.hold")
+            .tag("endpoint", "useBalance").timer().count());
+    }
+
+    @DisplayName("같은 계좌 대기자가 많으면 대기 시간을 줄인다")
+    @Test
+    void adaptiveWaitShrinksWithQueue() throws Exception {
+        // given
+        given(localLockRegistry.getQueueLength("123"))
+            .willReturn(9);
+        given(redissonClient.getLock(anyString()))
+            .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+            .willReturn(true);
+
+        // when
+        lockService.lock("123", 1000L, 15000L, "useBalance");
+
+        // then
+        verify(rLock).tryLock(longThat(wait -> wait <= 100L), eq(-1L), eq(TimeUnit.MILLISECONDS));
+        lockService.unlock("123");
+    }
+
+    @DisplayName("최대 보유 시간이 지나면 소유자 ID 로 락을 놓고 만료를 한 번만 기록한다")
+    @Test
+    void overdueLockReleasedByOwner() throws Exception {
+        // given
+        RFuture<Void> released = rFuture(null);
+        given(redissonClient.getLock(anyString()))
+            .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+            .willReturn(true);
+        given(rLock.unlockAsync(anyLong()))
+            .willReturn(released);
+        willThrow(new IllegalMonitorStateException())
+            .given(rLock).unlock();
+
+        // when
+        lockService.lock("123", 1000L, 30L, "useBalance");
+        Thread.sleep(200L);
+        lockService.unlock("123");
+
+        // then
+        verify(rLock).unlockAsync(Thread.currentThread().getId());
+        assertEquals(1.0, meterRegistry.get("account.lock.lease.expired")
+            .tag("endpoint", "useBalance").counter().count());
+    }
+
+    @DisplayName("작업이 최대 보유 시간 전에 끝나면 강제로 놓지 않는다")
+    @Test
+    void unlockBeforeMaxHold() throws Exception {
+        // given
+        given(redissonClient.getLock(anyString()))
+            .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+            .willReturn(true);
+
+        // when
+        lockService.lock("123", 1000L, 100L, "useBalance");
+        lockService.unlock("123");
+        Thread.sleep(200L);
+
+        // then
+        verify(rLock).unlock();
+        verify(rLock, never()).unlockAsync(anyLong());
+    }
+
+    @DisplayName("해제 전에 lease 가 만료되면 만료 이벤트를 기록하고 로컬 락은 풀어준다")
+    @Test
+    void leaseExpiredBeforeUnlock() throws Exception {
+        // given
+        given(redissonClient.getLock(anyString()))
+            .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+            .willReturn(true);
+        willThrow(new IllegalMonitorStateException())
+            .given(rLock).unlock();
+        lockService.lock("123", 1000L, 15000L, "useBalance");
+
+        // when
+        lockService.unlock("123");
+
+        // then
+        assertEquals(1.0, meterRegistry.get("account.lock.lease.expired")
+            .tag("endpoint", "useBalance").counter().count());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        assertTrue(executor.submit(() -> localLockRegistry.tryLock("123", 0, TimeUnit.SECONDS)).get());
+        executor.shutdownNow();
+    }
+
+    @DisplayName("Redis 장애 시 REJECT 정책이면 락 없이 실행하지 않고 거절한다")
+    @Test
+    void redisFailure_reject() throws Exception {
+        // given
+        given(redissonClient.getLock(anyString()))
+            .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+            .willThrow(new RedisTimeoutException("timeout"));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class, () -> lockService.lock("123"));
+
+        // then
+        assertEquals(ErrorCode.ACCOUNT_LOCK_UNAVAILABLE, exception.getErrorCode());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        assertTrue(executor.submit(() -> localLockRegistry.tryLock("123", 0, TimeUnit.SECONDS)).get());
+        executor.shutdownNow();
+    }
+
+    @DisplayName("Redis 장애 시 LOCAL 정책이면 로컬 락만 잡고 처리하며, 해제 때 Redis 를 호출하지 않는다")
+    @Test
+    void redisFailure_local() throws Exception {
+        // given
+        lockService.shutdown();
+        lockService = lockService(RedisLockFallback.LOCAL);
+        given(redissonClient.getLock(anyString()))
+            .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+            .willThrow(new RedisTimeoutException("timeout"));
+
+        // when
+        lockService.lock("123");
+
+        // then
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        assertFalse(executor.submit(() -> localLockRegistry.tryLock("123", 0, TimeUnit.SECONDS)).get());
+        lockService.unlock("123");
+        verify(rLock, never()).unlock();
+        assertTrue(executor.submit(() -> localLockRegistry.tryLock("123", 0, TimeUnit.SECONDS)).get());
+        executor.shutdownNow();
+    }
+
+    @DisplayName("circuit 이 열리면 Redis 를 호출하지 않고 바로 fallback 으로 처리한다")
+    @Test
+    void circuitOpen_skipsRedis() throws Exception {
+        // given
+        given(redissonClient.getLock(anyString()))
+            .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+            .willThrow(new RedisTimeoutException("timeout"));
+        assertThrows(AccountException.class, () -> lockService.lock("123"));
+        assertThrows(AccountException.class, () -> lockService.lock("123"));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class, () -> lockService.lock("123"));
+
+        // then
+        assertEquals(CircuitState.OPEN, circuitBreaker.getState());
+        assertEquals(ErrorCode.ACCOUNT_LOCK_UNAVAILABLE, exception.getErrorCode());
+        verify(rLock, times(2)).tryLock(anyLong(), anyLong(), any());
+    }
+
+    @DisplayName("비동기 락은 요청마다 발급한 소유자 ID 로 잡고 같은 ID 로 해제한다")
+    @Test
+    void lockAsyncAndUnlockWithOwner() throws Exception {
+        // given
+        RFuture<Boolean> locked = rFuture(true);
+        RFuture<Void> unlocked = rFuture(null);
+        given(redissonClient.getLock(anyString()))
+            .willReturn(rLock);
+        given(rLock.tryLockAsync(anyLong(), anyLong(), any(), anyLong()))
+            .willReturn(locked);
+        given(rLock.unlockAsync(anyLong()))
+            .willReturn(unlocked);
+
+        // when
+        Long ownerId = lockService.lockAsync("123").get();
+        Long otherOwnerId = lockService.lockAsync("123").get();
+        lockService.unlockAsync("123", ownerId).get();
+
+        // then
+        assertTrue(ownerId < 0);
+        assertNotEquals(ownerId, otherOwnerId);
+        verify(rLock).tryLockAsync(1000L, 15000L, TimeUnit.MILLISECONDS, ownerId);
+        verify(rLock).unlockAsync(ownerId);
+    }
+
+    @Test
+    void failLockAsync() {
+        // given
+        RFuture<Boolean> notLocked = rFuture(false);
+        given(redissonClient.getLock(anyString()))
+            .willReturn(rLock);
+        given(rLock.tryLockAsync(anyLong(), anyLong(), any(), anyLong()))
+            .willReturn(notLocked);
+
+        // when
+        ExecutionException exception = assertThrows(ExecutionException.class,
+            () -> lockService.lockAsync("123").get());
+
+        // then
+        assertInstanceOf(AccountException.class, exception.getCause());
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, ((AccountException) exception.getCause()).getErrorCode());
     }
 
-}
\ No newline at end of file
+    @SuppressWarnings("unchecked")
+    private static <V> RFuture<V> rFuture(V value) {
+        RFuture<V> future = mock(RFuture.class);
+        given(future.toCompletableFuture()).willReturn(CompletableFuture.completedFuture(value));
+        return future;
+    }
+
+    private LockService lockService(RedisLockFallback fallback) {
+        return new LockService(redissonClient, localLockRegistry, circuitBreaker, fallback, meterRegistry,
+            new BackgroundThreads(false), 50L, 60000L);
+    }
+}
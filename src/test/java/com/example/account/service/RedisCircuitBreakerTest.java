@@ -0,0 +1,143 @@
+package com.example.account.service;
+
+import com.example.account.type.CircuitState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedisCircuitBreakerTest {
+
+    @DisplayName("연속 실패가 기준에 닿으면 열리고, 열린 동안에는 호출을 막는다")
+    @Test
+    void opensAfterConsecutiveFailures() {
+        // given
+        RedisCircuitBreaker circuitBreaker =
+            new RedisCircuitBreaker("lock", new SimpleMeterRegistry(), 3, Duration.ofSeconds(10));
+
+        // when
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        boolean closedPermission = circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onFailure();
+
+        // then
+        assertTrue(closedPermission);
+        assertEquals(CircuitState.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @DisplayName("open-duration 이 지나면 한 요청만 시험 호출하고, 성공하면 닫힌다")
+    @Test
+    void halfOpenProbe_success() {
+        // given
+        RedisCircuitBreaker circuitBreaker =
+            new RedisCircuitBreaker("lock", new SimpleMeterRegistry(), 1, Duration.ZERO);
+        circuitBreaker.onFailure();
+
+        // when
+        boolean probe = circuitBreaker.tryAcquirePermission();
+        boolean concurrent = circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onSuccess();
+
+        // then
+        assertTrue(probe);
+        assertFalse(concurrent);
+        assertEquals(CircuitState.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    @DisplayName("시험 호출이 실패하면 다시 열린다")
+    @Test
+    void halfOpenProbe_failure() {
+        // given
+        RedisCircuitBreaker circuitBreaker =
+            new RedisCircuitBreaker("lock", new SimpleMeterRegistry(), 5, Duration.ofMillis(50));
+        for (int i = 0; i < 5; i++) {
+            circuitBreaker.onFailure();
+        }
+
+        // when
+        boolean beforeDuration = circuitBreaker.tryAcquirePermission();
+        sleep(60L);
+        boolean probe = circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onFailure();
+
+        // then
+        assertFalse(beforeDuration);
+        assertTrue(probe);
+        assertEquals(CircuitState.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @DisplayName("OPEN 전에 시작한 느린 호출이 성공해도 열린 circuit 은 닫히지 않는다")
+    @Test
+    void lateSuccessKeepsOpen() {
+        // given
+        RedisCircuitBreaker circuitBreaker =
+            new RedisCircuitBreaker("lock", new SimpleMeterRegistry(), 1, Duration.ofSeconds(10));
+        boolean slowCall = circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onFailure();
+
+        // when
+        circuitBreaker.onSuccess();
+
+        // then
+        assertTrue(slowCall);
+        assertEquals(CircuitState.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @DisplayName("시험 호출이 Error 로 끝나면 HALF_OPEN 에 멈추지 않고 다음 요청이 다시 시험한다")
+    @Test
+    void halfOpenProbe_error() {
+        // given
+        RedisCircuitBreaker circuitBreaker =
+            new RedisCircuitBreaker("lock", new SimpleMeterRegistry(), 1, Duration.ZERO);
+        circuitBreaker.onFailure();
+
+        // when
+        assertThrows(AssertionError.class, () -> circuitBreaker.call(() -> {
+            throw new AssertionError("boom");
+        }));
+
+        // then
+        assertEquals(CircuitState.OPEN, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    @DisplayName("용도마다 따로 만든 circuit 은 name 태그로 상태를 노출한다")
+    @Test
+    void stateGaugePerName() {
+        // given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RedisCircuitBreaker lock = new RedisCircuitBreaker("lock", meterRegistry, 1, Duration.ofSeconds(10));
+        new RedisCircuitBreaker("cache", meterRegistry, 1, Duration.ofSeconds(10));
+
+        // when
+        lock.onFailure();
+
+        // then
+        assertEquals(CircuitState.OPEN.ordinal(),
+            meterRegistry.get("account.redis.circuit.state").tag("name", "lock").gauge().value());
+        assertEquals(CircuitState.CLOSED.ordinal(),
+            meterRegistry.get("account.redis.circuit.state").tag("name", "cache").gauge().value());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
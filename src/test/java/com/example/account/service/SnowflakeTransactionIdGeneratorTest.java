@@ -0,0 +1,78 @@
+package com.example.account.service;
+
+import com.example.account.domain.util.CrockfordBase32;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnowflakeTransactionIdGeneratorTest {
+
+    private final SnowflakeTransactionIdGenerator generator = new SnowflakeTransactionIdGenerator(7);
+
+    @DisplayName("나중에 발급한 ID 가 항상 더 크고, 문자열 순서도 같다")
+    @Test
+    void idsAreTimeOrdered() {
+        // given
+        long previousId = generator.nextLong();
+        String previousText = CrockfordBase32.encode(previousId);
+
+        for (int i = 0; i < 10_000; i++) {
+            // when
+            long id = generator.nextLong();
+            String text = CrockfordBase32.encode(id);
+
+            // then
+            assertTrue(id > previousId);
+            assertTrue(text.compareTo(previousText) > 0);
+            previousId = id;
+            previousText = text;
+        }
+    }
+
+    @Test
+    void nextIdContainsNodeId() {
+        // when
+        String text = generator.nextId();
+
+        // then
+        long id = CrockfordBase32.decode(text);
+        assertEquals(13, text.length());
+        assertEquals(7L, (id >>> 12) & 1023);
+    }
+
+    @DisplayName("여러 스레드에서 동시에 발급해도 ID 가 겹치지 않는다")
+    @Test
+    void uniqueUnderConcurrency() throws Exception {
+        // given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+
+        // when
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    ids.add(generator.nextId());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // then
+        assertEquals(80_000, ids.size());
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.account.service;
+
+import com.example.account.dto.UseBalance;
+import com.example.account.dto.UseBalanceBatch;
+import com.example.account.exception.AccountException;
+import com.example.account.exception.ErrorCode;
+import com.example.account.type.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static com.example.account.type.TransactionResultType.FAILED;
+import static com.example.account.type.TransactionResultType.SUCCESS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionBatchServiceTest {
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private LockProvider lockProvider;
+
+    @Mock
+    private FailedTransactionRecorder failedTransactionRecorder;
+
+    @InjectMocks
+    private TransactionBatchService transactionBatchService;
+
+    @DisplayName("계좌별로 묶어 락을 한 번씩만 잡고, 결과는 요청 순서대로 돌려준다")
+    @Test
+    void useBalances_groupByAccount() {
+        // given
+        given(transactionService.useBalances(eq("1000000001"), anyList()))
+            .willReturn(List.of(success("1000000001", 100L), success("1000000001", 300L)));
+        given(transactionService.useBalances(eq("1000000002"), anyList()))
+            .willReturn(List.of(
+                UseBalanceBatch.Result.failure("1000000002", 200L, ErrorCode.AMOUNT_EXCEED_BALANCE)));
+
+        // when
+        List<UseBalanceBatch.Result> results = transactionBatchService.useBalances(List.of(
+            new UseBalance.Request(1L, "1000000001", 100L),
+            new UseBalance.Request(2L, "1000000002", 200L),
+            new UseBalance.Request(1L, "1000000001", 300L)));
+
+        // then
+        verify(lockProvider, times(1)).lock("1000000001");
+        verify(lockProvider, times(1)).lock("1000000002");
+        verify(lockProvider, times(1)).unlock("1000000001");
+        verify(lockProvider, times(1)).unlock("1000000002");
+
+        assertEquals(3, results.size());
+        assertEquals(0, results.get(0).getIndex());
+        assertEquals(100L, results.get(0).getAmount());
+        assertEquals(1, results.get(1).getIndex());
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, results.get(1).getErrorCode());
+        assertEquals(2, results.get(2).getIndex());
+        assertEquals(300L, results.get(2).getAmount());
+        verify(failedTransactionRecorder).record("1000000002", 200L, TransactionType.USE);
+    }
+
+    @DisplayName("락을 잡지 못한 계좌의 요청만 ACCOUNT_TRANSACTION_LOCK 으로 실패한다")
+    @Test
+    void useBalances_lockFailed() {
+        // given
+        willThrow(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK))
+            .given(lockProvider).lock("1000000002");
+        given(transactionService.useBalances(eq("1000000001"), anyList()))
+            .willReturn(List.of(success("1000000001", 100L)));
+
+        // when
+        List<UseBalanceBatch.Result> results = transactionBatchService.useBalances(List.of(
+            new UseBalance.Request(1L, "1000000001", 100L),
+            new UseBalance.Request(2L, "1000000002", 200L),
+            new UseBalance.Request(2L, "1000000002", 300L)));
+
+        // then
+        assertEquals(SUCCESS, results.get(0).getTransactionResultType());
+        assertEquals(FAILED, results.get(1).getTransactionResultType());
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, results.get(1).getErrorCode());
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, results.get(2).getErrorCode());
+        assertEquals(2, results.get(2).getIndex());
+        verify(transactionService, never()).useBalances(eq("1000000002"), anyList());
+        verify(lockProvider, never()).unlock("1000000002");
+    }
+
+    private static UseBalanceBatch.Result success(String accountNumber, Long amount) {
+        return UseBalanceBatch.Result.builder()
+            .accountNumber(accountNumber)
+            .transactionResultType(SUCCESS)
+            .transactionId("transactionId")
+            .amount(amount)
+            .build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.account.service;
+
+import com.example.account.domain.util.CrockfordBase32;
+import com.example.account.dto.CachedTransaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static com.example.account.type.TransactionResultType.SUCCESS;
+import static com.example.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionCacheTest {
+    private static final String TRANSACTION_ID = CrockfordBase32.encode(1234L);
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RBucket<String> bucket;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final RedisCircuitBreaker circuitBreaker = new RedisCircuitBreaker("cache", meterRegistry, 1, Duration.ofMinutes(1));
+
+    @DisplayName("저장한 거래는 로컬 캐시에서 바로 찾고, 적중/미스가 집계된다")
+    @Test
+    void putAndGet() {
+        // given
+        TransactionCache transactionCache = localOnly();
+        transactionCache.put(cachedTransaction());
+
+        // when
+        Optional<CachedTransaction> hit = transactionCache.get(TRANSACTION_ID);
+        Optional<CachedTransaction> miss = transactionCache.get("0000000000000");
+
+        // then
+        assertEquals(1000L, hit.orElseThrow().amount());
+        assertTrue(miss.isEmpty());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+        verifyNoInteractions(redissonClient);
+    }
+
+    @DisplayName("로컬에 없으면 redis 에서 찾아 로컬 캐시를 채운다")
+    @Test
+    void getFromRedis() throws Exception {
+        // given
+        TransactionCache transactionCache = new TransactionCache(meterRegistry, redissonClient, circuitBreaker, objectMapper,
+            100, true, Duration.ofHours(1));
+        given(redissonClient.<String>getBucket(anyString(), any(Codec.class)))
+            .willReturn(bucket);
+        given(bucket.get())
+            .willReturn(objectMapper.writeValueAsString(cachedTransaction()));
+
+        // when
+        Optional<CachedTransaction> first = transactionCache.get(TRANSACTION_ID);
+        Optional<CachedTransaction> second = transactionCache.get(TRANSACTION_ID);
+
+        // then
+        assertEquals(cachedTransaction().transactedAt(), first.orElseThrow().transactedAt());
+        assertEquals(first, second);
+        verify(bucket, times(1)).get();
+        assertEquals(1.0, meterRegistry.get("account.transaction.cache.redis").tag("result", "hit").counter().count());
+    }
+
+    @DisplayName("redis 장애는 캐시 미스로 처리한다")
+    @Test
+    void redisFailureIsMiss() {
+        // given
+        TransactionCache transactionCache = new TransactionCache(meterRegistry, redissonClient, circuitBreaker, objectMapper,
+            100, true, Duration.ofHours(1));
+        given(redissonClient.<String>getBucket(anyString(), any(Codec.class)))
+            .willThrow(new IllegalStateException("redis down"));
+
+        // when
+        Optional<CachedTransaction> result = transactionCache.get(TRANSACTION_ID);
+
+        // then
+        assertTrue(result.isEmpty());
+    }
+
+    @DisplayName("Redis circuit 이 열려 있으면 redis 를 호출하지 않고 캐시 미스로 처리한다")
+    @Test
+    void circuitOpenSkipsRedis() {
+        // given
+        TransactionCache transactionCache = new TransactionCache(meterRegistry, redissonClient, circuitBreaker, objectMapper,
+            100, true, Duration.ofHours(1));
+        circuitBreaker.onFailure();
+
+        // when
+        Optional<CachedTransaction> result = transactionCache.get(TRANSACTION_ID);
+
+        // then
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(redissonClient);
+    }
+
+    private TransactionCache localOnly() {
+        return new TransactionCache(meterRegistry, redissonClient, circuitBreaker, objectMapper, 100, false, Duration.ofHours(1));
+    }
+
+    private static CachedTransaction cachedTransaction() {
+        return new CachedTransaction(TRANSACTION_ID, 1L, "1000000012", 1000L, 9000L,
+            LocalDateTime.of(2025, 1, 1, 12, 0), SUCCESS, USE);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.account.service;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.Transaction;
+import com.example.account.exception.AccountException;
+import com.example.account.exception.ErrorCode;
+import com.example.account.repository.AccountRepository;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.ExportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.example.account.type.TransactionResultType.SUCCESS;
+import static com.example.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TypedQuery<Transaction> query;
+
+    private TransactionExportService transactionExportService;
+
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        transactionExportService = new TransactionExportService(accountRepository, entityManager, objectMapper);
+        ReflectionTestUtils.setField(transactionExportService, "fetchSize", 200);
+
+        account = Account.builder()
+            .id(1L)
+            .accountNumber("1000000012")
+            .accountStatus(AccountStatus.IN_USE)
+            .balance(10000L)
+            .build();
+    }
+
+    @Test
+    void exportNdjson() throws Exception {
+        // given
+        given(accountRepository.findByAccountNumber(anyString()))
+            .willReturn(Optional.of(account));
+        givenQuery(Stream.of(transaction("0000000000001", 1000L), transaction("0000000000002", 2000L)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // when
+        transactionExportService.export("1000000012", ExportFormat.NDJSON, outputStream);
+
+        // then
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"transactionId\":\"0000000000001\""));
+        assertTrue(lines[1].contains("\"amount\":2000"));
+        verify(entityManager, times(2)).detach(any(Transaction.class));
+        // 설정한 fetch size 로 커서를 연다
+        verify(query).setHint(HibernateHints.HINT_FETCH_SIZE, 200);
+        verify(query).setHint(HibernateHints.HINT_READ_ONLY, true);
+    }
+
+    @Test
+    void exportCsv() throws Exception {
+        // given
+        given(accountRepository.findByAccountNumber(anyString()))
+            .willReturn(Optional.of(account));
+        givenQuery(Stream.of(transaction("0000000000001", 1000L)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // when
+        transactionExportService.export("1000000012", ExportFormat.CSV, outputStream);
+
+        // then
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("transactionId,transactionType,transactionResultType,amount,balanceSnapshot,transactedAt", lines[0]);
+        assertTrue(lines[1].startsWith("0000000000001,USE,SUCCESS,1000,9000,"));
+    }
+
+    @Test
+    void export_AccountNotFound() {
+        // given
+        given(accountRepository.findByAccountNumber(anyString()))
+            .willReturn(Optional.empty());
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> transactionExportService.validateAccount("1000000012"));
+
+        // then
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
+    }
+
+    private void givenQuery(Stream<Transaction> transactions) {
+        given(entityManager.createQuery(anyString(), eq(Transaction.class)))
+            .willReturn(query);
+        given(query.setParameter("account", account))
+            .willReturn(query);
+        given(query.setHint(anyString(), any()))
+            .willReturn(query);
+        given(query.getResultStream())
+            .willReturn(transactions);
+    }
+
+    private Transaction transaction(String transactionId, Long amount) {
+        return Transaction.builder()
+            .account(account)
+            .transactionId(transactionId)
+            .transactionType(USE)
+            .transactionResultType(SUCCESS)
+            .amount(amount)
+            .balanceSnapshot(9000L)
+            .transactionAt(LocalDateTime.now())
+            .build();
+    }
+}
@@ -1,24 +1,35 @@
 package com.example.account.service;
 
 import com.example.account.domain.Account;
+import com.example.account.domain.util.CrockfordBase32;
 import com.example.account.type.AccountStatus;
 import com.example.account.domain.AccountUser;
 import com.example.account.domain.Transaction;
+import com.example.account.dto.AccountOwnership;
+import com.example.account.dto.CachedTransaction;
+import com.example.account.dto.FailedTransaction;
 import com.example.account.dto.TransactionDto;
+import com.example.account.dto.TransactionHistoryDto;
+import com.example.account.dto.UseBalance;
+import com.example.account.dto.UseBalanceBatch;
 import com.example.account.exception.AccountException;
 import com.example.account.exception.ErrorCode;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
 import com.example.account.repository.TransactionRepository;
+import com.example.account.type.TransactionConcurrencyMode;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static com.example.account.type.TransactionResultType.FAILED;
@@ -26,6 +37,7 @@ import static com.example.account.type.TransactionResultType.SUCCESS;
 import static com.example.account.type.TransactionType.CANCEL;
 import static com.example.account.type.TransactionType.USE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -38,6 +50,7 @@ class TransactionServiceTest {
 
     private static final long USE_AMOUNT = 200L;
     private static final long CANCEL_AMOUNT = 2000L;
+    private static final String TRANSACTION_ID = CrockfordBase32.encode(1234L);
 
     @Mock
     private AccountRepository accountRepository;
@@ -48,6 +61,18 @@ class TransactionServiceTest {
     @Mock
     private AccountUserRepository accountUserRepository;
 
+    @Mock
+    private TransactionCache transactionCache;
+
+    @Mock
+    private AccountOwnershipCache accountOwnershipCache;
+
+    @Mock
+    private UserAccountsCache userAccountsCache;
+
+    @Spy
+    private TransactionIdGenerator transactionIdGenerator = new SnowflakeTransactionIdGenerator(1);
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -59,8 +84,8 @@ class TransactionServiceTest {
             .id(12L)
             .userName("testUser")
             .build();
-        given(accountUserRepository.findById(anyLong()))
-            .willReturn(Optional.of(accountUser));
+        given(accountOwnershipCache.get(anyString()))
+            .willReturn(Optional.of(new AccountOwnership(1L, 12L, AccountStatus.IN_USE)));
 
         Account account = Account.builder()
             .accountUser(accountUser)
@@ -85,7 +110,7 @@ class TransactionServiceTest {
 
         ArgumentCaptor<Transaction> transactionCaptor = ArgumentCaptor.forClass(Transaction.class);
         // when
-        TransactionDto transactionDto = transactionService.useBalance(1L, "100000000", USE_AMOUNT);
+        TransactionDto transactionDto = transactionService.useBalance(12L, "100000000", USE_AMOUNT);
 
         // then
         verify(transactionRepository, times(1)).save(transactionCaptor.capture());
@@ -101,8 +126,10 @@ class TransactionServiceTest {
     @Test
     void useBalance_UserNotFound() {
         // given
-        given(accountUserRepository.findById(anyLong()))
-            .willReturn(Optional.empty());
+        given(accountOwnershipCache.get(anyString()))
+            .willReturn(Optional.of(new AccountOwnership(1L, 12L, AccountStatus.IN_USE)));
+        given(accountUserRepository.existsById(anyLong()))
+            .willReturn(false);
 
         // when
         AccountException exception = assertThrows(AccountException.class,
@@ -115,14 +142,7 @@ class TransactionServiceTest {
     @Test
     void useBalance_AccountNotFound() {
         // given
-        AccountUser accountUser = AccountUser.builder()
-            .id(12L)
-            .userName("testUser")
-            .build();
-
-        given(accountUserRepository.findById(anyLong()))
-            .willReturn(Optional.of(accountUser));
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountOwnershipCache.get(anyString()))
             .willReturn(Optional.empty());
 
         // when
@@ -137,26 +157,13 @@ class TransactionServiceTest {
     @Test
     void useBalance_AlreadyClosed() {
         // given
-        AccountUser user = AccountUser.builder()
-            .id(12L)
-            .userName("testUser")
-            .build();
-
-        given(accountUserRepository.findById(anyLong()))
-            .willReturn(Optional.of(user));
-
-        given(accountRepository.findByAccountNumber(anyString()))
-            .willReturn(Optional.of(Account.builder()
-                .accountUser(user)
-                .accountNumber("1000000012")
-                .balance(0L)
-                .accountStatus(AccountStatus.UNREGISTERED)
-                .build()));
+        given(accountOwnershipCache.get(anyString()))
+            .willReturn(Optional.of(new AccountOwnership(1L, 12L, AccountStatus.UNREGISTERED)));
 
         // when
         // then
         AccountException exception = assertThrows(AccountException.class,
-            () -> transactionService.useBalance(1L, "1000000000", 1000L));
+            () -> transactionService.useBalance(12L, "1000000000", 1000L));
 
         assertEquals(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED, exception.getErrorCode());
     }
@@ -165,30 +172,15 @@ class TransactionServiceTest {
     @Test
     void useBalance_UserUnMatch() {
         // given
-        AccountUser harry = AccountUser.builder()
-            .id(12L)
-            .userName("testUser")
-            .build();
-
-        AccountUser pobi = AccountUser.builder()
-            .id(13L)
-            .userName("testUser")
-            .build();
-
-        given(accountUserRepository.findById(anyLong()))
-            .willReturn(Optional.of(harry));
-
-        given(accountRepository.findByAccountNumber(anyString()))
-            .willReturn(Optional.of(Account.builder()
-                .accountUser(pobi)
-                .accountNumber("1000000012")
-                .balance(0L)
-                .build()));
+        given(accountOwnershipCache.get(anyString()))
+            .willReturn(Optional.of(new AccountOwnership(1L, 13L, AccountStatus.IN_USE)));
+        given(accountUserRepository.existsById(anyLong()))
+            .willReturn(true);
 
         // when
         // then
         AccountException exception = assertThrows(AccountException.class,
-            () -> transactionService.useBalance(1L, "1000000000", 1000L));
+            () -> transactionService.useBalance(12L, "1000000000", 1000L));
 
         assertEquals(ErrorCode.USER_ACCOUNT_UN_MATCH, exception.getErrorCode());
     }
@@ -202,8 +194,8 @@ class TransactionServiceTest {
             .id(12L)
             .userName("testUser")
             .build();
-        given(accountUserRepository.findById(anyLong()))
-            .willReturn(Optional.of(accountUser));
+        given(accountOwnershipCache.get(anyString()))
+            .willReturn(Optional.of(new AccountOwnership(1L, 12L, AccountStatus.IN_USE)));
 
         Account account = Account.builder()
             .accountUser(accountUser)
@@ -218,50 +210,243 @@ class TransactionServiceTest {
         // when
         // then
         AccountException exception = assertThrows(AccountException.class,
-            () -> transactionService.useBalance(1L, "1000000000", 100000L));
+            () -> transactionService.useBalance(12L, "1000000000", 100000L));
 
         assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
         verify(transactionRepository, times(0)).save(any());
     }
 
-    @DisplayName("실패 트랜잭션 저장 성공")
+    @DisplayName("ATOMIC 모드 - 조건부 UPDATE 로 잔액 차감")
     @Test
-    void saveFailedUseTransaction() {
+    void successUseBalance_atomic() {
         // given
+        ReflectionTestUtils.setField(transactionService, "concurrencyMode", TransactionConcurrencyMode.ATOMIC);
         AccountUser accountUser = AccountUser.builder()
             .id(12L)
             .userName("testUser")
             .build();
         Account account = Account.builder()
+            .id(1L)
             .accountUser(accountUser)
             .balance(10000L)
             .accountStatus(AccountStatus.IN_USE)
             .accountNumber("1000000012")
             .build();
 
-        given(accountRepository.findByAccountNumber(anyString()))
-            .willReturn(Optional.of(account));
-
+        given(accountOwnershipCache.get(anyString()))
+            .willReturn(Optional.of(new AccountOwnership(1L, 12L, AccountStatus.IN_USE)));
+        given(accountRepository.getReferenceById(1L))
+            .willReturn(account);
+        given(accountRepository.decreaseBalance(1L, USE_AMOUNT))
+            .willReturn(1);
+        given(accountRepository.findBalanceById(1L))
+            .willReturn(9800L);
         given(transactionRepository.save(any()))
-            .willReturn(Transaction.builder()
-                .account(account)
-                .transactionId("transactionId")
-                .transactionType(USE)
-                .transactionResultType(SUCCESS)
-                .amount(1000L)
-                .balanceSnapshot(9000L)
-                .transactionAt(LocalDateTime.now())
-                .build());
+            .willAnswer(invocation -> invocation.getArgument(0));
 
         ArgumentCaptor<Transaction> transactionCaptor = ArgumentCaptor.forClass(Transaction.class);
         // when
-        transactionService.saveFailedUseTransaction("100000000", USE_AMOUNT);
+        TransactionDto transactionDto = transactionService.useBalance(12L, "1000000012", USE_AMOUNT);
 
         // then
         verify(transactionRepository, times(1)).save(transactionCaptor.capture());
-        assertEquals(USE_AMOUNT, transactionCaptor.getValue().getAmount());
-        assertEquals(10000L, transactionCaptor.getValue().getBalanceSnapshot());
-        assertEquals(FAILED, transactionCaptor.getValue().getTransactionResultType());
+        assertEquals(9800L, transactionCaptor.getValue().getBalanceSnapshot());
+        assertEquals(10000L, account.getBalance());
+        assertEquals(SUCCESS, transactionDto.getTransactionResultType());
+        assertEquals(9800L, transactionDto.getBalanceSnapshot());
+        assertEquals("1000000012", transactionDto.getAccountNumber());
+        verify(userAccountsCache, times(1)).evictAfterCommit(12L);
+        verify(accountRepository, times(0)).findByAccountNumber(anyString());
+        verify(accountUserRepository, times(0)).findById(anyLong());
+    }
+
+    @DisplayName("ATOMIC 모드 - 잔액 부족이면 UPDATE 가 반영되지 않고 실패")
+    @Test
+    void exceedAmount_UseBalance_atomic() {
+        // given
+        ReflectionTestUtils.setField(transactionService, "concurrencyMode", TransactionConcurrencyMode.ATOMIC);
+        given(accountOwnershipCache.get(anyString()))
+            .willReturn(Optional.of(new AccountOwnership(1L, 12L, AccountStatus.IN_USE)));
+        given(accountRepository.decreaseBalance(1L, USE_AMOUNT))
+            .willReturn(0);
+        given(accountRepository.findStatusById(1L))
+            .willReturn(Optional.of(AccountStatus.IN_USE));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> transactionService.useBalance(12L, "1000000012", USE_AMOUNT));
+
+        // then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        verify(transactionRepository, times(0)).save(any());
+    }
+
+    @DisplayName("ATOMIC 모드 - 캐시 이후 해지된 계좌는 잔액 부족이 아니라 해지 오류로 실패")
+    @Test
+    void unregistered_UseBalance_atomic() {
+        // given
+        ReflectionTestUtils.setField(transactionService, "concurrencyMode", TransactionConcurrencyMode.ATOMIC);
+        given(accountOwnershipCache.get(anyString()))
+            .willReturn(Optional.of(new AccountOwnership(1L, 12L, AccountStatus.IN_USE)));
+        given(accountRepository.decreaseBalance(1L, USE_AMOUNT))
+            .willReturn(0);
+        given(accountRepository.findStatusById(1L))
+            .willReturn(Optional.of(AccountStatus.UNREGISTERED));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> transactionService.useBalance(12L, "1000000012", USE_AMOUNT));
+
+        // then
+        assertEquals(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED, exception.getErrorCode());
+        verify(transactionRepository, times(0)).save(any());
+    }
+
+    @DisplayName("ATOMIC 모드 - 해지된 계좌에는 취소 금액을 되돌리지 않는다")
+    @Test
+    void unregistered_CancelBalance_atomic() {
+        // given
+        ReflectionTestUtils.setField(transactionService, "concurrencyMode", TransactionConcurrencyMode.ATOMIC);
+        given(transactionRepository.findCachedByTransactionId(anyString()))
+            .willReturn(Optional.of(cachedTransaction()));
+        given(accountOwnershipCache.get(anyString()))
+            .willReturn(Optional.of(new AccountOwnership(1L, 12L, AccountStatus.IN_USE)));
+        given(accountRepository.increaseBalance(1L, CANCEL_AMOUNT))
+            .willReturn(0);
+        given(accountRepository.findStatusById(1L))
+            .willReturn(Optional.of(AccountStatus.UNREGISTERED));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> transactionService.cancelBalance(TRANSACTION_ID, "1000000012", CANCEL_AMOUNT));
+
+        // then
+        assertEquals(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED, exception.getErrorCode());
+        verify(transactionRepository, times(0)).save(any());
+    }
+
+    @DisplayName("잔액 사용 일괄 처리 - 요청 순서대로 차감하고 실패 건만 오류 코드를 남긴다")
+    @Test
+    void useBalances() {
+        // given
+        AccountUser accountUser = AccountUser.builder()
+            .id(12L)
+            .userName("testUser")
+            .build();
+        Account account = Account.builder()
+            .accountUser(accountUser)
+            .balance(1000L)
+            .accountStatus(AccountStatus.IN_USE)
+            .accountNumber("1000000012")
+            .build();
+        given(accountOwnershipCache.get(anyString()))
+            .willReturn(Optional.of(new AccountOwnership(1L, 12L, AccountStatus.IN_USE)));
+        given(accountRepository.findByAccountNumber(anyString()))
+            .willReturn(Optional.of(account));
+        given(transactionRepository.saveAll(anyList()))
+            .willAnswer(invocation -> invocation.getArgument(0));
+
+        ArgumentCaptor<List<Transaction>> transactionCaptor = ArgumentCaptor.forClass(List.class);
+        // when
+        List<UseBalanceBatch.Result> results = transactionService.useBalances("1000000012", List.of(
+            new UseBalance.Request(12L, "1000000012", 300L),
+            new UseBalance.Request(12L, "1000000012", 500L),
+            new UseBalance.Request(12L, "1000000012", 300L),
+            new UseBalance.Request(12L, "1000000012", 200L)));
+
+        // then
+        verify(transactionRepository, times(1)).saveAll(transactionCaptor.capture());
+        List<Transaction> saved = transactionCaptor.getValue();
+        assertEquals(3, saved.size());
+        assertEquals(700L, saved.get(0).getBalanceSnapshot());
+        assertEquals(200L, saved.get(1).getBalanceSnapshot());
+        assertEquals(0L, saved.get(2).getBalanceSnapshot());
+        assertEquals(0L, account.getBalance());
+
+        assertEquals(4, results.size());
+        assertEquals(SUCCESS, results.get(0).getTransactionResultType());
+        assertEquals(SUCCESS, results.get(1).getTransactionResultType());
+        assertEquals(FAILED, results.get(2).getTransactionResultType());
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, results.get(2).getErrorCode());
+        assertEquals(SUCCESS, results.get(3).getTransactionResultType());
+        verify(transactionCache, times(3)).putAfterCommit(any());
+        verify(userAccountsCache).evictAfterCommit(12L);
+    }
+
+    @DisplayName("실패 트랜잭션 일괄 저장 - 없는 계좌는 건너뛴다")
+    @Test
+    void saveFailedTransactions() {
+        // given
+        AccountUser accountUser = AccountUser.builder()
+            .id(12L)
+            .userName("testUser")
+            .build();
+        Account account = Account.builder()
+            .accountUser(accountUser)
+            .balance(10000L)
+            .accountStatus(AccountStatus.IN_USE)
+            .accountNumber("1000000012")
+            .build();
+        LocalDateTime failedAt = LocalDateTime.now().minusSeconds(1);
+
+        given(accountRepository.findByAccountNumberIn(anyCollection()))
+            .willReturn(List.of(account));
+        given(transactionRepository.saveAll(anyList()))
+            .willAnswer(invocation -> invocation.getArgument(0));
+
+        ArgumentCaptor<List<Transaction>> transactionCaptor = ArgumentCaptor.forClass(List.class);
+        // when
+        transactionService.saveFailedTransactions(List.of(
+            new FailedTransaction("transactionId", "1000000012", USE_AMOUNT, USE, 12000L, failedAt),
+            new FailedTransaction("otherTransactionId", "9999999999", USE_AMOUNT, USE, null, failedAt),
+            new FailedTransaction(null, "1000000012", CANCEL_AMOUNT, CANCEL, null, failedAt)));
+
+        // then
+        verify(transactionRepository, times(1)).saveAll(transactionCaptor.capture());
+        List<Transaction> saved = transactionCaptor.getValue();
+        assertEquals(2, saved.size());
+        assertEquals(FAILED, saved.get(0).getTransactionResultType());
+        assertEquals(USE_AMOUNT, saved.get(0).getAmount());
+        // 실패 시점의 잔액을 쓰고, 없으면 저장 시점의 잔액을 쓴다
+        assertEquals(12000L, saved.get(0).getBalanceSnapshot());
+        assertEquals(failedAt, saved.get(0).getTransactionAt());
+        assertEquals("transactionId", saved.get(0).getTransactionId());
+        assertEquals(CANCEL, saved.get(1).getTransactionType());
+        assertEquals(10000L, saved.get(1).getBalanceSnapshot());
+        verify(transactionCache, times(2)).putAfterCommit(any());
+    }
+
+    @DisplayName("실패 트랜잭션 일괄 저장 - 이미 저장된 거래 ID 는 다시 저장하지 않는다")
+    @Test
+    void saveFailedTransactionsSkipsSavedTransactionIds() {
+        // given
+        Account account = Account.builder()
+            .accountUser(AccountUser.builder().id(12L).userName("testUser").build())
+            .balance(10000L)
+            .accountStatus(AccountStatus.IN_USE)
+            .accountNumber("1000000012")
+            .build();
+        LocalDateTime failedAt = LocalDateTime.now().minusSeconds(1);
+
+        given(accountRepository.findByAccountNumberIn(anyCollection()))
+            .willReturn(List.of(account));
+        given(transactionRepository.findTransactionIdsIn(anyCollection()))
+            .willReturn(List.of("savedTransactionId"));
+        given(transactionRepository.saveAll(anyList()))
+            .willAnswer(invocation -> invocation.getArgument(0));
+
+        ArgumentCaptor<List<Transaction>> transactionCaptor = ArgumentCaptor.forClass(List.class);
+        // when
+        transactionService.saveFailedTransactions(List.of(
+            new FailedTransaction("savedTransactionId", "1000000012", USE_AMOUNT, USE, 12000L, failedAt),
+            new FailedTransaction("newTransactionId", "1000000012", USE_AMOUNT, USE, 12000L, failedAt),
+            new FailedTransaction("newTransactionId", "1000000012", USE_AMOUNT, USE, 12000L, failedAt)));
+
+        // then
+        verify(transactionRepository, times(1)).saveAll(transactionCaptor.capture());
+        List<Transaction> saved = transactionCaptor.getValue();
+        assertEquals(1, saved.size());
+        assertEquals("newTransactionId", saved.get(0).getTransactionId());
     }
 
     @DisplayName("거래 취소 성공 테스트")
@@ -273,6 +458,7 @@ class TransactionServiceTest {
             .userName("testUser")
             .build();
         Account account = Account.builder()
+            .id(1L)
             .accountUser(accountUser)
             .balance(10000L)
             .accountStatus(AccountStatus.IN_USE)
@@ -289,9 +475,11 @@ class TransactionServiceTest {
             .build();
 
 
-        given(transactionRepository.findByTransactionId(anyString()))
-            .willReturn(Optional.of(transaction));
+        given(transactionRepository.findCachedByTransactionId(anyString()))
+            .willReturn(Optional.of(CachedTransaction.from(transaction)));
 
+        given(accountOwnershipCache.get(anyString()))
+            .willReturn(Optional.of(new AccountOwnership(1L, 12L, AccountStatus.IN_USE)));
         given(accountRepository.findByAccountNumber(anyString()))
             .willReturn(Optional.of(account));
 
@@ -308,7 +496,7 @@ class TransactionServiceTest {
 
         ArgumentCaptor<Transaction> transactionCaptor = ArgumentCaptor.forClass(Transaction.class);
         // when
-        TransactionDto transactionDto = transactionService.cancelBalance("transactionCancel", "1000000012", CANCEL_AMOUNT);
+        TransactionDto transactionDto = transactionService.cancelBalance(TRANSACTION_ID, "1000000012", CANCEL_AMOUNT);
 
         // then
         verify(transactionRepository, times(1)).save(transactionCaptor.capture());
@@ -324,13 +512,13 @@ class TransactionServiceTest {
     @Test
     void cancelBalance_TransactionNotFound() {
         // given
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findCachedByTransactionId(anyString()))
             .willReturn(Optional.empty());
 
         // when
         // then
         AccountException exception = assertThrows(AccountException.class,
-            () -> transactionService.cancelBalance("transactionCancel", "1000000012", 1000L));
+            () -> transactionService.cancelBalance(TRANSACTION_ID, "1000000012", 1000L));
 
         assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, exception.getErrorCode());
     }
@@ -339,28 +527,24 @@ class TransactionServiceTest {
     @Test
     void cancelBalance_AccountNotFound() {
         // given
-        AccountUser accountUser = AccountUser.builder()
-            .id(12L)
-            .userName("testUser")
-            .build();
-
-        given(transactionRepository.findByTransactionId(anyString()))
-            .willReturn(Optional.of(Transaction.builder()
+        given(transactionRepository.findCachedByTransactionId(anyString()))
+            .willReturn(Optional.of(CachedTransaction.from(Transaction.builder()
                 .transactionId("transactionCancel")
+                .account(Account.builder().id(1L).accountNumber("1000000012").build())
                 .transactionType(CANCEL)
                 .transactionResultType(SUCCESS)
                 .amount(CANCEL_AMOUNT)
                 .balanceSnapshot(10000L)
                 .transactionAt(LocalDateTime.now())
-                .build()));
+                .build())));
 
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountOwnershipCache.get(anyString()))
             .willReturn(Optional.empty());
 
         // when
         // then
         AccountException exception = assertThrows(AccountException.class,
-            () -> transactionService.cancelBalance("transactionCancel", "1000000012", 1000L));
+            () -> transactionService.cancelBalance(TRANSACTION_ID, "1000000012", 1000L));
 
         assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
     }
@@ -376,15 +560,8 @@ class TransactionServiceTest {
             .accountNumber("1000000012")
             .build();
 
-        Account accountNotUse = Account.builder()
-            .id(13L)
-            .balance(10000L)
-            .accountStatus(AccountStatus.IN_USE)
-            .accountNumber("1000000013")
-            .build();
-
-        given(transactionRepository.findByTransactionId(anyString()))
-            .willReturn(Optional.of(Transaction.builder()
+        given(transactionRepository.findCachedByTransactionId(anyString()))
+            .willReturn(Optional.of(CachedTransaction.from(Transaction.builder()
                 .transactionId("transactionCancel")
                 .account(accountUse)
                 .transactionType(CANCEL)
@@ -392,16 +569,16 @@ class TransactionServiceTest {
                 .amount(CANCEL_AMOUNT)
                 .balanceSnapshot(10000L)
                 .transactionAt(LocalDateTime.now())
-                .build()));
+                .build())));
 
-        given(accountRepository.findByAccountNumber(anyString()))
-            .willReturn(Optional.of(accountNotUse));
+        given(accountOwnershipCache.get(anyString()))
+            .willReturn(Optional.of(new AccountOwnership(13L, 12L, AccountStatus.IN_USE)));
 
 
         // when
         // then
         AccountException exception = assertThrows(AccountException.class,
-            () -> transactionService.cancelBalance("transactionCancel", "1000000013", CANCEL_AMOUNT));
+            () -> transactionService.cancelBalance(TRANSACTION_ID, "1000000013", CANCEL_AMOUNT));
 
         assertEquals(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH, exception.getErrorCode());
     }
@@ -417,8 +594,8 @@ class TransactionServiceTest {
             .accountNumber("1000000012")
             .build();
 
-        given(transactionRepository.findByTransactionId(anyString()))
-            .willReturn(Optional.of(Transaction.builder()
+        given(transactionRepository.findCachedByTransactionId(anyString()))
+            .willReturn(Optional.of(CachedTransaction.from(Transaction.builder()
                 .transactionId("transactionCancel")
                 .account(accountUse)
                 .transactionType(CANCEL)
@@ -426,16 +603,16 @@ class TransactionServiceTest {
                 .amount(CANCEL_AMOUNT)
                 .balanceSnapshot(10000L)
                 .transactionAt(LocalDateTime.now())
-                .build()));
+                .build())));
 
-        given(accountRepository.findByAccountNumber(anyString()))
-            .willReturn(Optional.of(accountUse));
+        given(accountOwnershipCache.get(anyString()))
+            .willReturn(Optional.of(new AccountOwnership(12L, 12L, AccountStatus.IN_USE)));
 
 
         // when
         // then
         AccountException exception = assertThrows(AccountException.class,
-            () -> transactionService.cancelBalance("transactionCancel", "1000000013", 1000L));
+            () -> transactionService.cancelBalance(TRANSACTION_ID, "1000000013", 1000L));
 
         assertEquals(ErrorCode.CANCEL_MUST_FULLY, exception.getErrorCode());
     }
@@ -443,46 +620,42 @@ class TransactionServiceTest {
     @Test
     void successQueryTransaction() {
         // given
-        Account accountUse = Account.builder()
-            .id(12L)
-            .balance(10000L)
-            .accountStatus(AccountStatus.IN_USE)
-            .accountNumber("1000000012")
-            .build();
-        Transaction transaction = Transaction.builder()
-            .transactionId("transactionCancel")
-            .account(accountUse)
-            .transactionType(USE)
-            .transactionResultType(SUCCESS)
-            .amount(CANCEL_AMOUNT)
-            .balanceSnapshot(10000L)
-            .transactionAt(LocalDateTime.now())
-            .build();
-
-
-        given(transactionRepository.findByTransactionId(anyString()))
-            .willReturn(Optional.of(transaction));
+        given(transactionRepository.findCachedByTransactionId(anyString()))
+            .willReturn(Optional.of(cachedTransaction()));
         // when
-        TransactionDto transactionDto = transactionService.queryTransaction("trxId");
+        TransactionDto transactionDto = transactionService.queryTransaction(TRANSACTION_ID);
         // then
         assertEquals(USE, transactionDto.getTransactionType());
         assertEquals(SUCCESS, transactionDto.getTransactionResultType());
         assertEquals(CANCEL_AMOUNT, transactionDto.getAmount());
+        verify(transactionCache, times(1)).put(any());
+    }
 
-
+    @DisplayName("캐시에 있는 거래는 DB 조회 없이 응답")
+    @Test
+    void queryTransaction_CacheHit() {
+        // given
+        given(transactionCache.get(TRANSACTION_ID))
+            .willReturn(Optional.of(cachedTransaction()));
+        // when
+        TransactionDto transactionDto = transactionService.queryTransaction(TRANSACTION_ID);
+        // then
+        assertEquals("1000000012", transactionDto.getAccountNumber());
+        assertEquals(CANCEL_AMOUNT, transactionDto.getAmount());
+        verify(transactionRepository, times(0)).findCachedByTransactionId(anyString());
     }
 
     @DisplayName("해당 거래 없음 - 거래 조회 실패")
     @Test
     void queryTransaction_TransactionNotFound() {
         // given
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findCachedByTransactionId(anyString()))
             .willReturn(Optional.empty());
 
         // when
         // then
         AccountException exception = assertThrows(AccountException.class,
-            () -> transactionService.cancelBalance("transactionId", "1000000012", 1000L));
+            () -> transactionService.cancelBalance(TRANSACTION_ID, "1000000012", 1000L));
 
         assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, exception.getErrorCode());
     }
@@ -490,4 +663,91 @@ class TransactionServiceTest {
 
 
 
-}
\ No newline at end of file
+
+    @DisplayName("형식이 맞지 않는 거래 ID 는 DB 조회 없이 거래 없음")
+    @Test
+    void queryTransaction_InvalidTransactionId() {
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> transactionService.queryTransaction("trxId"));
+
+        // then
+        assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, exception.getErrorCode());
+        verify(transactionRepository, times(0)).findCachedByTransactionId(anyString());
+    }
+
+    @DisplayName("거래 내역 조회 - 다음 페이지가 있으면 마지막 거래 기준 커서를 준다")
+    @Test
+    void successGetTransactionHistory() {
+        // given
+        Account account = Account.builder()
+            .id(12L)
+            .balance(10000L)
+            .accountStatus(AccountStatus.IN_USE)
+            .accountNumber("1000000012")
+            .build();
+        LocalDateTime now = LocalDateTime.now();
+        List<Transaction> transactions = List.of(
+            historyTransaction(account, 3L, now),
+            historyTransaction(account, 2L, now.minusMinutes(1)),
+            historyTransaction(account, 1L, now.minusMinutes(2)));
+
+        given(accountRepository.findByAccountNumber(anyString()))
+            .willReturn(Optional.of(account));
+        given(transactionRepository.findHistory(eq(account), any(), anyLong(), eq(USE), isNull(), any()))
+            .willReturn(transactions);
+
+        // when
+        TransactionHistoryDto first = transactionService.getTransactionHistory(
+            "1000000012", null, 2, USE, null);
+
+        // then
+        assertEquals(2, first.getTransactions().size());
+        assertNotNull(first.getNextCursor());
+
+        // when
+        transactionService.getTransactionHistory("1000000012", first.getNextCursor(), 2, USE, null);
+
+        // then
+        ArgumentCaptor<LocalDateTime> cursorAtCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<Long> cursorIdCaptor = ArgumentCaptor.forClass(Long.class);
+        verify(transactionRepository, times(2)).findHistory(eq(account), cursorAtCaptor.capture(),
+            cursorIdCaptor.capture(), eq(USE), isNull(), any());
+        assertEquals(now.minusMinutes(1), cursorAtCaptor.getAllValues().get(1));
+        assertEquals(2L, cursorIdCaptor.getAllValues().get(1));
+    }
+
+    @DisplayName("거래 내역 조회 - 잘못된 커서")
+    @Test
+    void getTransactionHistory_InvalidCursor() {
+        // given
+        given(accountRepository.findByAccountNumber(anyString()))
+            .willReturn(Optional.of(Account.builder().id(12L).build()));
+
+        // when
+        AccountException exception = assertThrows(AccountException.class,
+            () -> transactionService.getTransactionHistory("1000000012", "not-a-cursor", 20, null, null));
+
+        // then
+        assertEquals(ErrorCode.INVALID_REQUEST, exception.getErrorCode());
+    }
+
+    private static Transaction historyTransaction(Account account, Long id, LocalDateTime transactionAt) {
+        Transaction transaction = Transaction.builder()
+            .account(account)
+            .transactionId(CrockfordBase32.encode(id))
+            .transactionType(USE)
+            .transactionResultType(SUCCESS)
+            .amount(USE_AMOUNT)
+            .balanceSnapshot(10000L)
+            .transactionAt(transactionAt)
+            .build();
+        ReflectionTestUtils.setField(transaction, "id", id);
+        return transaction;
+    }
+
+    private static CachedTransaction cachedTransaction() {
+        return new CachedTransaction(TRANSACTION_ID, 1L, "1000000012", CANCEL_AMOUNT, 10000L,
+            LocalDateTime.now(), SUCCESS, USE);
+    }
+}